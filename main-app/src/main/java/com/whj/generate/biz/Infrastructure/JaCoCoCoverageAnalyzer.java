@@ -1,167 +1,155 @@
 package com.whj.generate.biz.Infrastructure;
 
-import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
+import com.whj.generate.biz.Infrastructure.coverage.CoverageBackend;
+import com.whj.generate.biz.Infrastructure.coverage.IsolatedCoverageEvaluator;
+import com.whj.generate.biz.Infrastructure.coverage.MethodLines;
+import com.whj.generate.biz.Infrastructure.coverage.ProbeLineIndex;
+import com.whj.generate.biz.Infrastructure.coverage.TargetInvoker;
 import com.whj.generate.core.domain.Chromosome;
 import com.whj.generate.core.exception.ExceptionWrapper;
 import com.whj.generate.core.exception.GenerateErrorEnum;
 import com.whj.generate.utill.InputStreamUtil;
-import com.whj.generate.utill.ReflectionUtil;
 import org.jacoco.agent.rt.IAgent;
-import org.jacoco.agent.rt.internal_aeaf9ab.asm.Type;
-import org.jacoco.core.analysis.Analyzer;
-import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.ICounter;
-import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataReader;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.internal.data.CRC64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Method;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JaCoCo 覆盖率分析工具类
+ * <p>
+ * 优先直接读取目标类在 JaCoCo 运行时中的探针数组（boolean[]），不再经过 exec 数据的序列化与反序列化；
+ * 目标类无法直读探针时，退化为 {@link IAgent#getExecutionData(boolean)} 导出模式。
+ * 探针到覆盖行的映射通过 {@link ProbeLineIndex} 完成，每个目标方法只分析一次字节码。
+ * 并发评估时在 {@link IsolatedCoverageEvaluator} 的插桩副本上执行。
  *
  * @author whj
  * @date 2025-04-18 上午1:17
  */
 @Component
-public final class JaCoCoCoverageAnalyzer {
+public final class JaCoCoCoverageAnalyzer implements CoverageBackend {
+    private static final Logger logger = LoggerFactory.getLogger(JaCoCoCoverageAnalyzer.class);
+    /**
+     * 后端名称
+     */
+    public static final String NAME = "jacoco";
+    /**
+     * JaCoCo 插桩类中返回探针数组的合成方法名
+     */
+    private static final String JACOCO_INIT_METHOD = "$jacocoInit";
     /**
      * jaCocoAgent
      */
     private final IAgent agent;
     /**
-     * 覆盖率追踪器
+     * 隔离覆盖率评估器
      */
-    private final ChromosomeCoverageTracker coverageTracker;
-
-    private static final String COVERAGE_ERROR_CONTEXT = "覆盖率分析失败";
+    private final IsolatedCoverageEvaluator isolatedEvaluator;
+    /**
+     * 目标类运行时探针数组，value 为空表示该类只能走 exec 导出模式
+     */
+    private final Map<Class<?>, Optional<boolean[]>> runtimeProbesCache = new ConcurrentHashMap<>();
+    /**
+     * 目标类字节码缓存
+     */
+    private final Map<Class<?>, TargetClass> targetClassCache = new ConcurrentHashMap<>();
+    /**
+     * 目标方法调用器缓存
+     */
+    private final Map<Method, TargetInvoker> invokerCache = new ConcurrentHashMap<>();
+    /**
+     * 目标方法探针-行号索引缓存
+     */
+    private final Map<Method, ProbeLineIndex> probeLineIndexCache = new ConcurrentHashMap<>();
 
     @Autowired
-    public JaCoCoCoverageAnalyzer(IAgent agent, ChromosomeCoverageTracker coverageTracker) {
+    public JaCoCoCoverageAnalyzer(IAgent agent, IsolatedCoverageEvaluator isolatedEvaluator) {
         this.agent = agent;
-        this.coverageTracker = coverageTracker;
+        this.isolatedEvaluator = isolatedEvaluator;
     }
 
-
-    /**
-     * 收集新的覆盖率数据（修正参数传递）
-     */
-    public byte[] collectNewCoverageData(Chromosome chromosome) {
-        // 执行代码并收集覆盖率数据
-        return ExceptionWrapper.process(() -> {
-            Object[] params = chromosome.getGenes();
-            final Method method = chromosome.getMethod();
-            agent.reset();
-            final Object instance = method.getDeclaringClass().getDeclaredConstructor().newInstance();
-            //真实调用逻辑
-            String errorMsg = ReflectionUtil.invokeSafe(method, params, instance);
-            if (errorMsg != null) {
-                chromosome.setErrorMsg(errorMsg);
-            }
-            return agent.getExecutionData(false);
-        }, GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "覆盖率数据收集失败");
+    @Override
+    public String getName() {
+        return NAME;
     }
 
-
-    /**
-     * 带染色体追踪的覆盖率计算
-     */
-    public double calculateCoveragePercentage(byte[] data, Chromosome chromosome) {
-        return ExceptionWrapper.process(() -> {
-            final ExecutionDataStore store = new ExecutionDataStore();
-            readExecutionData(data, store, new SessionInfoStore());
-            return analyzeMethodCoverage(store, chromosome, chromosome.getMethod());
-        }, GenerateErrorEnum.GET_OVERRIDE_FAIL, "覆盖率计算失败");
+    @Override
+    public MethodLines getMethodLines(Method method) {
+        return getProbeLineIndex(method).getMethodLines();
     }
 
-    /**
-     * 带染色体追踪的分析方法
-     */
-    private double analyzeMethodCoverage(ExecutionDataStore store,
-                                         Chromosome chromosome, Method method) throws Exception {
-        try (InputStream classStream = InputStreamUtil.getClassByteStream(method)) {
-            final CoverageBuilder builder = new CoverageBuilder();
-            Analyzer analyzer = new Analyzer(store, builder);
-            analyzer.analyzeClass(classStream, method.getDeclaringClass().getName());
-
-            // 处理类覆盖率数据
-            builder.getClasses().forEach(cc -> {
-                coverageTracker.processClassCoverage(cc, method, chromosome);
-            });
-            // 返回所有类中目标方法的最大覆盖率比率
-            return builder.getClasses().stream()
-                    // 将每个类的方法流合并为一个流
-                    .flatMap(cc -> cc.getMethods().stream())
-                    // 过滤出目标方法
-                    .filter(mc -> isTargetMethod(mc, method))
-                    // 计算每个目标方法的覆盖率比率并转换为Double流
-                    .mapToDouble(mc -> calculateCoverageRatio(mc.getLineCounter()))
-                    // 找出最大的覆盖率比率
-                    .max()
-                    // 如果没有目标方法，则默认返回0.0
-                    .orElse(0.0);
-        }
-        
+    @Override
+    public boolean supportsConcurrent(Method method) {
+        return isolatedEvaluator.isSupported(method);
     }
 
-
-    /**
-     * 分析方法覆盖率
-     */
-    private static double analyzeMethodCoverage(ExecutionDataStore store, Method method) throws Exception {
-        try (InputStream classStream = InputStreamUtil.getClassByteStream(method)) {
-            final CoverageBuilder builder = new CoverageBuilder();
-            Analyzer analyzer = new Analyzer(store, builder);
-            analyzer.analyzeClass(classStream, method.getDeclaringClass().getName());
-
-            return builder.getClasses().stream()
-                    .flatMap(cc -> cc.getMethods().stream())
-                    .filter(mc -> isTargetMethod(mc, method))
-                    .findFirst()
-                    .map(mc -> calculateCoverageRatio(mc.getLineCounter()))
-                    .orElse(0.0);
-        }
+    @Override
+    public void release(Method method) {
+        isolatedEvaluator.release(method);
     }
 
-    /**
-     * 计算总覆盖率
-     */
-    public long calculateTotalCoverage(List<byte[]> coverageDataList, Method method) {
-        if (CollectionUtils.isEmpty(coverageDataList)) {
-            return 0L;
-        }
-
-        final ExecutionDataStore mergedStore = mergeCoverageData(coverageDataList);
-        return (long) calculateCoveragePercentage(mergedStore, method);
+    @Override
+    public long[] collectCoveredLines(Chromosome chromosome, boolean concurrent) {
+        final boolean[] probes = concurrent
+                ? isolatedEvaluator.collectCoverageData(chromosome)
+                : collectNewCoverageData(chromosome);
+        return getProbeLineIndex(chromosome.getMethod()).coveredLines(probes);
     }
 
 
     /**
-     * 从执行数据存储计算覆盖率百分比
+     * 收集新的覆盖率数据，返回目标类的探针数组快照
+     * <p>
+     * 原始类的探针数组由所有会话共享：同一目标类的重置、执行、读取须串行，锁为该类的探针数组；
+     * exec 导出模式重置的是整个 JVM 的执行数据，锁为 agent。
      */
-    private static double calculateCoveragePercentage(ExecutionDataStore store, Method method) {
-        return ExceptionWrapper.process(() ->
-                        analyzeMethodCoverage(store, method),
-                GenerateErrorEnum.GET_OVERRIDE_FAIL,
-                COVERAGE_ERROR_CONTEXT
-        );
+    private boolean[] collectNewCoverageData(Chromosome chromosome) {
+        // 执行代码并收集覆盖率数据
+        return ExceptionWrapper.process(() -> {
+            Object[] params = chromosome.getGenes();
+            final Method method = chromosome.getMethod();
+            final Optional<boolean[]> runtimeProbes = getRuntimeProbes(method.getDeclaringClass());
+            synchronized (runtimeProbes.isPresent() ? runtimeProbes.get() : agent) {
+                if (runtimeProbes.isPresent()) {
+                    // 只重置目标类的探针，无需重置整个 JVM 的执行数据
+                    Arrays.fill(runtimeProbes.get(), false);
+                } else {
+                    agent.reset();
+                }
+                //真实调用逻辑
+                String errorMsg = getInvoker(method).invoke(params);
+                if (errorMsg != null) {
+                    chromosome.setErrorMsg(errorMsg);
+                }
+                return runtimeProbes.isPresent()
+                        ? runtimeProbes.get().clone()
+                        : extractTargetProbes(agent.getExecutionData(false), method);
+            }
+        }, GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "覆盖率数据收集失败");
     }
 
+
     /**
-     * 合并多个覆盖率数据集
+     * exec 导出模式：从整个 JVM 的执行数据中取出目标类的探针数组
      */
-    private static ExecutionDataStore mergeCoverageData(List<byte[]> dataList) {
+    private boolean[] extractTargetProbes(byte[] data, Method method) {
         final ExecutionDataStore store = new ExecutionDataStore();
-        dataList.forEach(data -> readExecutionData(data, store, new SessionInfoStore()));
-        return store;
+        readExecutionData(data, store, new SessionInfoStore());
+        final ExecutionData executionData = store.get(getTargetClass(method).classId);
+        return executionData == null ? new boolean[0] : executionData.getProbes();
     }
 
     /**
@@ -178,20 +166,82 @@ public final class JaCoCoCoverageAnalyzer {
         }
     }
 
+    /**
+     * 获取目标类在 JaCoCo 运行时中的探针数组引用
+     * <p>
+     * 插桩后的类会生成静态合成方法 $jacocoInit，无论探针数组以字段还是 condy 常量保存，
+     * 该方法都返回运行时持有的同一个数组，因此可以直接复用该引用进行重置与读取。
+     */
+    private Optional<boolean[]> getRuntimeProbes(Class<?> targetClass) {
+        return runtimeProbesCache.computeIfAbsent(targetClass, clazz -> {
+            for (Method declared : clazz.getDeclaredMethods()) {
+                if (!declared.isSynthetic() || !JACOCO_INIT_METHOD.equals(declared.getName())) {
+                    continue;
+                }
+                try {
+                    declared.setAccessible(true);
+                    Object probes = declared.invoke(null, new Object[declared.getParameterCount()]);
+                    if (probes instanceof boolean[] runtimeProbes) {
+                        return Optional.of(runtimeProbes);
+                    }
+                } catch (Exception e) {
+                    logger.warn("无法直接读取 {} 的探针数组，退化为 exec 导出模式: {}", clazz.getName(), e.getMessage());
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 获取目标方法调用器，每个目标方法只构建一次
+     */
+    private TargetInvoker getInvoker(Method method) {
+        return invokerCache.computeIfAbsent(method, m -> ExceptionWrapper.process(() -> TargetInvoker.of(m),
+                GenerateErrorEnum.REFLECTION_EXCEPTION, "构建目标方法调用器失败"));
+    }
 
     /**
-     * 判断是否为目标方法
+     * 获取目标方法的探针-行号索引，每个目标方法只分析一次字节码
      */
-    private static boolean isTargetMethod(IMethodCoverage mc, Method method) {
-        return mc.getName().equals(method.getName())
-                && mc.getDesc().equals(Type.getMethodDescriptor(method));
+    private ProbeLineIndex getProbeLineIndex(Method method) {
+        return probeLineIndexCache.computeIfAbsent(method, m -> ExceptionWrapper.process(() -> {
+            final TargetClass targetClass = getTargetClass(m);
+            return ProbeLineIndex.build(targetClass.bytes, targetClass.className, targetClass.classId, m);
+        }, GenerateErrorEnum.GET_OVERRIDE_FAIL, "构建探针行号索引失败"));
     }
 
     /**
-     * 计算覆盖率比例
+     * 获取目标类字节码及 JaCoCo 类标识
      */
-    private static double calculateCoverageRatio(ICounter counter) {
-        return counter.getTotalCount() == 0 ? 0.0 :
-                counter.getCoveredCount() * 100.0 / counter.getTotalCount();
+    private TargetClass getTargetClass(Method method) {
+        return targetClassCache.computeIfAbsent(method.getDeclaringClass(), clazz -> ExceptionWrapper.process(() -> {
+            final byte[] bytes = InputStreamUtil.getClassBytes(method);
+            return new TargetClass(clazz.getName().replace('.', '/'), bytes, CRC64.classId(bytes));
+        }, GenerateErrorEnum.GET_OVERRIDE_FAIL, "读取目标类字节码失败"));
+    }
+
+
+    /**
+     * 目标类字节码
+     */
+    private static final class TargetClass {
+        /**
+         * 虚拟机内部类名
+         */
+        private final String className;
+        /**
+         * 原始字节码
+         */
+        private final byte[] bytes;
+        /**
+         * JaCoCo 类标识
+         */
+        private final long classId;
+
+        private TargetClass(String className, byte[] bytes, long classId) {
+            this.className = className;
+            this.bytes = bytes;
+            this.classId = classId;
+        }
     }
 }
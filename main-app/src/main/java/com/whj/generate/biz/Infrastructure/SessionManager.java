@@ -27,6 +27,10 @@ public class SessionManager {
         return Optional.ofNullable(sessions.get(sessionId));
     }
 
+    public Optional<Nature> removeSession(String sessionId) {
+        return Optional.ofNullable(sessions.remove(sessionId));
+    }
+
     @PreDestroy
     public void cleanUp() {
         sessions.clear();
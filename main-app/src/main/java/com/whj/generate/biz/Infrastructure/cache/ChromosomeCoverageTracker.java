@@ -5,48 +5,64 @@ package com.whj.generate.biz.Infrastructure.cache;
  * @date 2025-04-20 下午7:01
  */
 
-import com.google.common.collect.Lists;
+import com.whj.generate.common.config.GeneticAlgorithmConfig;
 import com.whj.generate.core.domain.Chromosome;
 import com.whj.generate.core.domain.Nature;
 import com.whj.generate.core.domain.Population;
-import com.whj.generate.utill.SetUtils;
+import com.whj.generate.utill.BitSetUtils;
+import com.whj.generate.utill.MinHash;
 import com.whj.generate.utill.SimilarityUtils;
-import org.jacoco.agent.rt.internal_aeaf9ab.asm.Type;
-import org.jacoco.core.analysis.IClassCoverage;
-import org.jacoco.core.analysis.ICounter;
-import org.jacoco.core.analysis.ILine;
-import org.jacoco.core.analysis.IMethodCoverage;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
  * 染色体适应度统计器，用于追踪每个染色体在方法和对应行上的覆盖情况。
+ * <p>
+ * 每个会话（{@link Nature}）持有独立的追踪器，状态均为实例字段且使用并发结构，多个会话可同时进化不同目标方法。
  */
 public class ChromosomeCoverageTracker {
 
-    // Method -> 行号 -> Set<Chromosome>
-    private static final Map<Method, Map<Integer, Set<Chromosome>>> coverageMap = new HashMap<>();
     /**
-     * 染色体序列号Map
+     * Method -> 覆盖双向索引（染色体 -> 行位图，行 -> 染色体位图）
+     */
+    private final Map<Method, MethodCoverageIndex> coverageMap = new ConcurrentHashMap<>();
+    /**
+     * 染色体序列号登记表
      **/
-    private final Map<Chromosome, Integer> chromosomeSequenceMap = new HashMap<>();
+    private final ChromosomeRegistry chromosomeRegistry = new ChromosomeRegistry();
     /**
      * 起始行
      */
-    private static Integer startLine;
+    private volatile Integer startLine;
     /**
      * 结束行
      */
-    private static Integer endLine;
-
-    private Map<Chromosome, byte[]> chromosomeCoverageDataMap = new HashMap<>();
+    private volatile Integer endLine;
 
-    // 私有工具方法
-    private static <T> Set<T> intersection(Set<T> a, Set<T> b) {
-        return a.stream().filter(b::contains).collect(Collectors.toSet());
-    }
+    /**
+     * 染色体评估记录：覆盖行位集、覆盖率与异常信息，已记录的染色体不再重复分析
+     */
+    private final Map<Chromosome, EvaluationResult> chromosomeEvaluationMap = new ConcurrentHashMap<>();
+    /**
+     * 评估中止的染色体：已登记序号但没有评估记录，增量统计越过这些序号
+     */
+    private final Set<Chromosome> abortedChromosomes = ConcurrentHashMap.newKeySet();
+    /**
+     * 种群 -> 覆盖行位集，随染色体评估增量按位或
+     */
+    private final Map<Population, long[]> populationCoveredLineMap = new ConcurrentHashMap<>();
+    /**
+     * 会话覆盖等价类统计
+     */
+    private volatile CoverageClassIndex coverageClassIndex = new CoverageClassIndex(newRegistryCursor());
+    /**
+     * MinHash 近似多样性索引，首次使用时创建
+     */
+    private volatile MinHashDiversityIndex minHashIndex;
 
     /**
      * 初始化起始行和结束行
@@ -54,7 +70,7 @@ public class ChromosomeCoverageTracker {
      * @param start
      * @param end
      */
-    public void init(Integer start, Integer end) {
+    public synchronized void init(Integer start, Integer end) {
         if (startLine == null) {
             startLine = start;
         }
@@ -63,29 +79,15 @@ public class ChromosomeCoverageTracker {
         }
     }
 
-    /**
-     * 获取新覆盖的行号（对比当前未覆盖行）
-     *
-     * @param chromosome       目标染色体
-     * @param currentUncovered 当前未覆盖行集合
-     * @return 该染色体覆盖的新行号集合
-     */
-    public Set<Integer> getNewLinesCovered(Chromosome chromosome, Set<Integer> currentUncovered) {
-        Set<Integer> covered = getChromosomeCovered(chromosome);
-        return intersection(covered, currentUncovered);
-    }
-
     /**
      * 获取所有种群（所有染色体）的方法的当前未覆盖行
      */
     public Set<Integer> getUncoveredLines(Method method) {
-        Map<Integer, Set<Chromosome>> methodCoverage = getMethodCoverage(method);
+        MethodCoverageIndex index = coverageMap.get(method);
+        BitSet currentCovered = index == null ? new BitSet() : index.coveredLines();
         Set<Integer> currentUncovered = new HashSet<>();
-        Set<Integer> currentCovered = methodCoverage.keySet();
-        for (int i = startLine; i <= endLine; i++) {
-            if (!currentCovered.contains(i)) {
-                currentUncovered.add(i);
-            }
+        for (int i = currentCovered.nextClearBit(startLine); i <= endLine; i = currentCovered.nextClearBit(i + 1)) {
+            currentUncovered.add(i);
         }
         return currentUncovered;
     }
@@ -95,6 +97,11 @@ public class ChromosomeCoverageTracker {
      * 被覆盖的行在 BitSet 中对应 bit 会被置为 true。
      */
     public BitSet buildCoverageBitSet(Population population) {
+        long[] populationCoveredLines = populationCoveredLineMap.get(population);
+        if (populationCoveredLines != null) {
+            // 已增量维护的种群直接使用并集位集
+            return BitSet.valueOf(populationCoveredLines);
+        }
         int length = endLine - startLine + 1;
         BitSet bitSet = new BitSet(length);
         // 依赖 getChromosomeCovered(chromosome) 返回 Set<Integer>
@@ -135,18 +142,11 @@ public class ChromosomeCoverageTracker {
      * @return
      */
     public Set<Integer> getChromosomeCovered(Chromosome chromosome) {
-        Map<Integer, Set<Chromosome>> methodCoverage = getMethodCoverage(chromosome);
-        //如果集合中存在该行，则返回该行被哪些染色体覆盖
-        if (methodCoverage == null) {
+        MethodCoverageIndex index = getMethodCoverage(chromosome);
+        if (index == null) {
             return Collections.emptySet();
         }
-        Set<Integer> lines = new HashSet<>();
-        for (Integer key : methodCoverage.keySet()) {
-            if (methodCoverage.get(key).contains(chromosome)) {
-                lines.add(key);
-            }
-        }
-        return lines;
+        return toLineSet(index.linesOf(chromosome));
     }
     /**
      * 获取某个染色体覆盖的行
@@ -155,18 +155,12 @@ public class ChromosomeCoverageTracker {
      * @return
      */
     public Set<Integer> getChromosomeUnCovered(Chromosome chromosome) {
-        Map<Integer, Set<Chromosome>> methodCoverage = getMethodCoverage(chromosome);
-        //如果集合中存在该行，则返回该行被哪些染色体覆盖
-        if (methodCoverage == null) {
+        MethodCoverageIndex index = getMethodCoverage(chromosome);
+        if (index == null) {
             return Collections.emptySet();
         }
-        Set<Integer> lines = new HashSet<>();
-        for (Integer key : methodCoverage.keySet()) {
-            if (!methodCoverage.get(key).contains(chromosome)) {
-                lines.add(key);
-            }
-        }
-        return lines;
+        //已被其他染色体覆盖、但该染色体未覆盖的行
+        return toLineSet(index.uncoveredLinesOf(chromosome));
     }
 
     /**
@@ -174,14 +168,8 @@ public class ChromosomeCoverageTracker {
      * @param chromosomeSeq
      * @return
      */
-    public   Chromosome getChromosomeById(Integer chromosomeSeq) {
-        Chromosome chromosome = null;
-        for (Map.Entry<Chromosome, Integer> entry : chromosomeSequenceMap.entrySet()) {
-            if (Objects.equals(entry.getValue(), chromosomeSeq)) {
-                chromosome=entry.getKey();
-            }
-        }
-        return chromosome;
+    public Chromosome getChromosomeById(Integer chromosomeSeq) {
+        return chromosomeSeq == null ? null : chromosomeRegistry.get(chromosomeSeq);
     }
 
     /**
@@ -192,11 +180,7 @@ public class ChromosomeCoverageTracker {
      */
     public void recordCoverage(List<Integer> lineNumbers, Chromosome chromosome) {
         Method method =chromosome.getMethod();
-        Map<Integer, Set<Chromosome>> lineMap = coverageMap.computeIfAbsent(method, k -> new HashMap<>());
-        for (Integer line : lineNumbers) {
-            Set<Chromosome> chromosomes = lineMap.computeIfAbsent(line, k -> new HashSet<>());
-            chromosomes.add(chromosome);
-        }
+        coverageMap.computeIfAbsent(method, k -> new MethodCoverageIndex(chromosomeRegistry)).record(chromosome, lineNumbers);
     }
 
     /**
@@ -205,31 +189,40 @@ public class ChromosomeCoverageTracker {
     public Set<Chromosome> getChromosomesForLine(Chromosome target, int line) {
         Method method = target.getMethod();
         return Optional.ofNullable(coverageMap.get(method))
-                .map(m -> m.getOrDefault(line, Collections.emptySet()))
+                .map(index -> index.chromosomesOf(line))
                 .orElse(Collections.emptySet());
     }
 
     /**
-     * 获取某个方法覆盖情况
+     * 获取染色体所在方法的覆盖索引
      */
-    public static Map<Integer, Set<Chromosome>> getMethodCoverage(Method method) {
+    private MethodCoverageIndex getMethodCoverage(Chromosome chromosome) {
+        Method method = chromosome.getMethod();
         return coverageMap.get(method);
     }
 
     /**
-     * 获取某个染色体覆盖情况
+     * 行位图转行号集合
      */
-    public Map<Integer, Set<Chromosome>> getMethodCoverage(Chromosome chromosome) {
-        Method method = chromosome.getMethod();
-        return coverageMap.get(method);
+    private static Set<Integer> toLineSet(BitSet lines) {
+        Set<Integer> result = new HashSet<>(lines.cardinality() * 2);
+        lines.stream().forEach(result::add);
+        return result;
     }
 
     /**
      * 清空统计信息
      */
-    public void clear() {
+    public synchronized void clear() {
         coverageMap.clear();
-        chromosomeSequenceMap.clear();
+        startLine = null;
+        endLine = null;
+        chromosomeRegistry.clear();
+        chromosomeEvaluationMap.clear();
+        abortedChromosomes.clear();
+        populationCoveredLineMap.clear();
+        coverageClassIndex = new CoverageClassIndex(newRegistryCursor());
+        minHashIndex = null;
     }
 
     /**
@@ -239,15 +232,9 @@ public class ChromosomeCoverageTracker {
      * @return
      */
     public Set<Chromosome> getCoveringChromosomeSet(Chromosome target) {
-        //获取目标染色体覆盖的行
-        Map<Integer, Set<Chromosome>> methodCoverage = getMethodCoverage(target);
-        Set<Chromosome> coveringChromosomes = new HashSet<>();
-        //遍历 map
-        for (Map.Entry<Integer, Set<Chromosome>> entry : methodCoverage.entrySet()) {
-            int line = entry.getKey();
-            coveringChromosomes.addAll(getChromosomesForLine(target, line));
-        }
-        return coveringChromosomes;
+        MethodCoverageIndex index = getMethodCoverage(target);
+        //各行染色体位图的并集
+        return index == null ? new HashSet<>() : index.coveringChromosomes();
     }
 
     /**
@@ -257,135 +244,200 @@ public class ChromosomeCoverageTracker {
      */
     public void buildChromosomeSequenceMap(Set<Chromosome> chromosomes) {
         for (Chromosome ch : chromosomes) {
-            if (!chromosomeSequenceMap.containsKey(ch)) {
-                chromosomeSequenceMap.put(ch, chromosomeSequenceMap.size() + 1);
-            }
+            chromosomeRegistry.register(ch);
         }
     }
 
     public Map<Chromosome, Integer> getChromosomeSequenceMap() {
-        return chromosomeSequenceMap;
+        return chromosomeRegistry.asMap();
     }
 
     /**
      * 覆盖记录
      *
-     * @param classCoverage
-     * @param method
-     * @param chromosome
+     * @param firstLine    方法起始行
+     * @param lastLine     方法结束行
+     * @param coveredLines 覆盖行位集，位序号 0 对应 firstLine
+     * @param chromosome   当前染色体
      */
-    public void processClassCoverage(IClassCoverage classCoverage, Method method, Chromosome chromosome) {
+    public void processLineCoverage(int firstLine, int lastLine, long[] coveredLines, Chromosome chromosome) {
+        init(firstLine, lastLine);
         // 记录每个覆盖行与染色体的映射关系
-        List<Integer> coveredLines = new ArrayList<>();
-
-        classCoverage.getMethods().stream()
-                .filter(mc -> isTargetMethod(mc, method))
-                .forEach(mc -> {
-                    init(mc.getFirstLine(), mc.getLastLine());
-                    for (int i = mc.getFirstLine(); i <= mc.getLastLine(); i++) {
-                        ILine line = classCoverage.getLine(i);
-                        if (line != null) {
-                            if (line.getStatus() == ICounter.FULLY_COVERED || line.getStatus() == ICounter.PARTLY_COVERED) {
-                                coveredLines.add(i);
-                            }
-                        }
-                    }
-                });
+        List<Integer> lines = new ArrayList<>(BitSetUtils.toLines(coveredLines, firstLine));
         // 调用追踪器的记录数据方法
-        recordCoverage(coveredLines, chromosome);
+        recordCoverage(lines, chromosome);
     }
 
     /**
-     * 判断是否为目标方法
+     * 把染色体覆盖行并入种群的覆盖行位集
+     *
+     * @param population   所属种群
+     * @param coveredLines 染色体覆盖行位集，位序号 0 对应起始行
      */
-    private static boolean isTargetMethod(IMethodCoverage mc, Method method) {
-        return mc.getName().equals(method.getName())
-                && mc.getDesc().equals(Type.getMethodDescriptor(method));
+    public synchronized void recordPopulationCoverage(Population population, long[] coveredLines) {
+        BitSetUtils.or(populationCoveredLineMap.computeIfAbsent(population, k -> new long[coveredLines.length]), coveredLines);
+    }
+
+    /**
+     * 获取种群覆盖行位集（未记录时为空位集）
+     */
+    public long[] getPopulationCoveredBits(Population population) {
+        return populationCoveredLineMap.getOrDefault(population, new long[0]);
     }
 
     /**
      * 获取种群相似度
      *
      * @param pop
+     * @param pool 并行计算线程池
      * @return
      */
-    public double getSimilarityAtGeneration(Population pop) {
-        List<Chromosome> chromosomes = Lists.newArrayList(pop.getChromosomeSet());
-        // 收集每个染色体的覆盖行集合
-        List<Set<Integer>> linesList = chromosomes.stream()
-                .map(this::getChromosomeCovered)
-                .collect(Collectors.toList());
-        // 调用工具类计算平均相似度
-        return SimilarityUtils.averagePopulationSimilarity(linesList);
+    public double getSimilarityAtGeneration(Population pop, ForkJoinPool pool) {
+        // 按覆盖等价类计算，计算量取决于不同覆盖路径数
+        Map<CoverageKey, int[]> classes = groupByCoverage(pop);
+        return SimilarityUtils.averagePopulationSimilarity(classLines(classes), classCounts(classes), pool);
     }
 
-    public static Integer getStartLine() {
-        return startLine;
+    /**
+     * 获取种群平均最近邻相似度：每个染色体与种群内最相似的其他染色体的相似度均值
+     *
+     * @param pop
+     * @param pool 并行计算线程池
+     * @return
+     */
+    public double getNearestSimilarityAtGeneration(Population pop, ForkJoinPool pool) {
+        Map<CoverageKey, int[]> classes = groupByCoverage(pop);
+        return SimilarityUtils.averageNearestSimilarity(classLines(classes), classCounts(classes), pool);
     }
 
-    public static void setStartLine(Integer startLine) {
-        ChromosomeCoverageTracker.startLine = startLine;
+    /**
+     * 获取目标与会话内其余覆盖染色体的平均相似度（按覆盖等价类加权）
+     *
+     * @param target
+     * @param pool 并行计算线程池
+     * @return
+     */
+    public double getAverageSimilarity(Chromosome target, ForkJoinPool pool) {
+        return coverageClassIndex.averageSimilarity(target, pool);
     }
 
-    public static Integer getEndLine() {
-        return endLine;
+    /**
+     * 种群按覆盖行分组：覆盖行 -> 染色体数
+     */
+    private Map<CoverageKey, int[]> groupByCoverage(Population pop) {
+        Map<CoverageKey, int[]> classes = new LinkedHashMap<>();
+        for (Chromosome chromosome : pop.getChromosomeSet()) {
+            classes.computeIfAbsent(new CoverageKey(getChromosomeCoveredBits(chromosome)), k -> new int[1])[0]++;
+        }
+        return classes;
     }
 
-    public static void setEndLine(Integer endLine) {
-        ChromosomeCoverageTracker.endLine = endLine;
+    private static List<long[]> classLines(Map<CoverageKey, int[]> classes) {
+        return classes.keySet().stream().map(CoverageKey::lines).collect(Collectors.toList());
     }
 
-    public Map<Chromosome, byte[]> getChromosomeCoverageDataMap() {
-        return chromosomeCoverageDataMap;
+    private static int[] classCounts(Map<CoverageKey, int[]> classes) {
+        return classes.values().stream().mapToInt(count -> count[0]).toArray();
     }
 
-    public void setChromosomeCoverageDataMap(Map<Chromosome, byte[]> chromosomeCoverageDataMap) {
-        this.chromosomeCoverageDataMap = chromosomeCoverageDataMap;
+    /**
+     * 基于 MinHash 签名估计种群相似度
+     *
+     * @param pop
+     * @return
+     */
+    public double getApproximateSimilarityAtGeneration(Population pop) {
+        return getMinHashIndex().averageSimilarity(pop);
     }
 
     /**
-     * 获取染色体新覆盖行
-     * @param nature
-     * @param population
-     * @param chromosome
+     * 基于 MinHash 签名与 LSH 分带估计种群平均最近邻相似度
+     *
+     * @param pop
      * @return
      */
-    public Set<Integer> getNewCovered(Nature nature, Population population, Chromosome chromosome) {
-        Set<Integer> uncovered = getUncovered(nature, population);
-        Set<Integer> linesCoveredBy = getChromosomeCovered(chromosome);
-        return SetUtils.intersection(uncovered, linesCoveredBy);
+    public double getApproximateNearestSimilarityAtGeneration(Population pop) {
+        return getMinHashIndex().averageNearestSimilarity(pop);
     }
 
     /**
-     * 获取未覆盖行<br/>
-     * 首先获取环境中上一代，若上代没有，则获取当前种群未覆盖行
+     * 基于 MinHash 签名估计目标与会话内其余覆盖染色体的平均相似度
      *
-     * @param nature
-     * @param population
+     * @param target
      * @return
      */
-    public Set<Integer> getUncovered(Nature nature, Population population) {
-        Set<Integer> uncovered = getLastPopulationUnCovered(nature);
-        if (uncovered.isEmpty()) {
-            uncovered = getPopulationUnCoveredLines(population);
+    public double getApproximateSimilarity(Chromosome target) {
+        return getMinHashIndex().averageSimilarity(target);
+    }
+
+    private RegistryCursor newRegistryCursor() {
+        return new RegistryCursor(chromosomeRegistry, chromosomeEvaluationMap, abortedChromosomes);
+    }
+
+    private MinHashDiversityIndex getMinHashIndex() {
+        MinHashDiversityIndex index = minHashIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = minHashIndex;
+                if (index == null) {
+                    index = new MinHashDiversityIndex(MinHash.forErrorBound(GeneticAlgorithmConfig.MINHASH_ERROR_BOUND),
+                            newRegistryCursor());
+                    minHashIndex = index;
+                }
+            }
         }
-        return uncovered;
+        return index;
     }
 
     /**
-     * 获取上次种群未覆盖行
+     * 获取染色体覆盖行位集（位序号 0 对应起始行），未评估的染色体为空位集
+     *
+     * @param chromosome
+     * @return
+     */
+    public long[] getChromosomeCoveredBits(Chromosome chromosome) {
+        EvaluationResult record = chromosomeEvaluationMap.get(chromosome);
+        return record == null ? new long[0] : record.getCoveredLines();
+    }
+
+    public Integer getStartLine() {
+        return startLine;
+    }
+
+    public Integer getEndLine() {
+        return endLine;
+    }
+
+    /**
+     * 记录评估中止的染色体
+     */
+    public void recordAborted(Chromosome chromosome) {
+        abortedChromosomes.add(chromosome);
+    }
+
+    public Map<Chromosome, EvaluationResult> getChromosomeEvaluationMap() {
+        return chromosomeEvaluationMap;
+    }
+
+    /**
+     * 获取新行覆盖打分用的未覆盖行位集（位序号 0 对应起始行）<br/>
+     * 取环境中上一代的未覆盖行，上代没有或已全部覆盖时取当前种群。
+     * 种群全部评估完成后每代取一次，各染色体的新覆盖行数即与该位集按位与后的置位数。
      *
      * @param nature
+     * @param population
      * @return
      */
-    public Set<Integer> getLastPopulationUnCovered(Nature nature) {
-        Set<Integer> lastPopulationUnCovered = Set.of();
+    public long[] getUncoveredBits(Nature nature, Population population) {
+        int length = endLine - startLine + 1;
+        long[] covered = null;
         if (!nature.hasPopulation()) {
-            //获取上个种群
-            int size = nature.getPopulationList().size();
-            final Population lastPopulation = nature.getPopulationList().get(size - 1);
-            lastPopulationUnCovered = getPopulationUnCoveredLines(lastPopulation);
+            List<Population> populationList = nature.getPopulationList();
+            covered = getPopulationCoveredBits(populationList.get(populationList.size() - 1));
+        }
+        if (covered == null || BitSetUtils.cardinality(covered) >= length) {
+            covered = getPopulationCoveredBits(population);
         }
-        return lastPopulationUnCovered;
+        return BitSetUtils.complement(covered, length);
     }
 }
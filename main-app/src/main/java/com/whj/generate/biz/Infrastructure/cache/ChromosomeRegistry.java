@@ -0,0 +1,74 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 染色体序号登记表（线程安全）
+ * <p>
+ * 为会话内的染色体分配从 1 开始连续递增的稠密序号，染色体与序号双向 O(1) 查找；
+ * 覆盖位图等结构直接以序号为下标。
+ *
+ * @author whj
+ * @date 2026-10-18 下午7:40
+ */
+public final class ChromosomeRegistry {
+    /**
+     * 染色体 -> 序号
+     */
+    private final Map<Chromosome, Integer> ids = new ConcurrentHashMap<>();
+    /**
+     * 序号 -> 染色体
+     */
+    private final Map<Integer, Chromosome> chromosomes = new ConcurrentHashMap<>();
+    /**
+     * 已分配的最大序号
+     */
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    /**
+     * 登记染色体，已登记的返回原序号
+     */
+    public int register(Chromosome chromosome) {
+        return ids.computeIfAbsent(chromosome, c -> {
+            int id = lastId.incrementAndGet();
+            chromosomes.put(id, c);
+            return id;
+        });
+    }
+
+    /**
+     * 获取染色体序号，未登记返回 null
+     */
+    public Integer idOf(Chromosome chromosome) {
+        return ids.get(chromosome);
+    }
+
+    /**
+     * 按序号获取染色体，未登记返回 null
+     */
+    public Chromosome get(int id) {
+        return chromosomes.get(id);
+    }
+
+    /**
+     * 染色体 -> 序号的只读视图
+     */
+    public Map<Chromosome, Integer> asMap() {
+        return Collections.unmodifiableMap(ids);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public synchronized void clear() {
+        ids.clear();
+        chromosomes.clear();
+        lastId.set(0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.utill.BitSetUtils;
+import com.whj.generate.utill.SimilarityUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 会话内覆盖染色体的覆盖等价类统计
+ * <p>
+ * 覆盖行相同的染色体归为一类并计数，目标与其余覆盖染色体的平均相似度按类加权计算，
+ * 计算量取决于不同覆盖路径的数量而非染色体数。染色体按登记序号增量计入，每个只计入一次。
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:50
+ */
+final class CoverageClassIndex {
+    private final RegistryCursor cursor;
+    /**
+     * 覆盖行 -> 染色体数
+     */
+    private final Map<CoverageKey, int[]> classCounts = new LinkedHashMap<>();
+    /**
+     * 已计入的覆盖染色体数
+     */
+    private int coveringCount;
+    /**
+     * 等价类快照，计入新染色体后重建；打分阶段各线程共享只读
+     */
+    private List<long[]> snapshotLines = new ArrayList<>();
+    private int[] snapshotCounts = new int[0];
+
+    CoverageClassIndex(RegistryCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * 目标与会话内其余覆盖染色体的平均 Jaccard 相似度
+     */
+    double averageSimilarity(Chromosome target, ForkJoinPool pool) {
+        final long[] targetLines = cursor.linesOf(target);
+        if (BitSetUtils.isEmpty(targetLines)) {
+            return 0.0;
+        }
+        final List<long[]> lines;
+        final int[] counts;
+        final boolean self;
+        final int others;
+        synchronized (this) {
+            if (catchUp()) {
+                snapshotLines = new ArrayList<>(classCounts.size());
+                snapshotCounts = new int[classCounts.size()];
+                int i = 0;
+                for (Map.Entry<CoverageKey, int[]> entry : classCounts.entrySet()) {
+                    snapshotLines.add(entry.getKey().lines());
+                    snapshotCounts[i++] = entry.getValue()[0];
+                }
+            }
+            lines = snapshotLines;
+            counts = snapshotCounts;
+            self = cursor.visited(target);
+            others = self ? coveringCount - 1 : coveringCount;
+        }
+        if (others <= 0) {
+            return 0.0;
+        }
+        double sum = SimilarityUtils.weightedSimilaritySum(targetLines, lines, counts, pool);
+        if (self) {
+            // 去掉目标与自身的相似度 1
+            sum -= 1.0;
+        }
+        return sum / others;
+    }
+
+    /**
+     * 计入新登记的覆盖染色体，有新增时返回 true
+     */
+    private boolean catchUp() {
+        final int before = coveringCount;
+        for (Chromosome chromosome = cursor.next(); chromosome != null; chromosome = cursor.next()) {
+            final long[] lines = cursor.linesOf(chromosome);
+            if (BitSetUtils.isEmpty(lines)) {
+                continue;
+            }
+            classCounts.computeIfAbsent(new CoverageKey(lines), k -> new int[1])[0]++;
+            coveringCount++;
+        }
+        return coveringCount != before;
+    }
+}
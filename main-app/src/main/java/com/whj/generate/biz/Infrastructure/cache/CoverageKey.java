@@ -0,0 +1,33 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.utill.BitSetUtils;
+
+/**
+ * 覆盖行位集作为 Map 键：覆盖行相同的染色体属于同一覆盖等价类，比较时忽略末尾全零字
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:50
+ */
+final class CoverageKey {
+    private final long[] lines;
+    private final int hash;
+
+    CoverageKey(long[] lines) {
+        this.lines = lines;
+        this.hash = BitSetUtils.hashCode(lines);
+    }
+
+    long[] lines() {
+        return lines;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CoverageKey other && hash == other.hash && BitSetUtils.equals(lines, other.lines);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,63 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import java.io.Serializable;
+
+/**
+ * 染色体评估结果（不可变）：覆盖行位集、覆盖率与异常信息；中止的评估只在本代使用，不进入任何缓存
+ *
+ * @author whj
+ * @date 2026-10-18 下午6:10
+ */
+public final class EvaluationResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 覆盖行位集，位序号 0 对应方法起始行
+     */
+    private final long[] coveredLines;
+    /**
+     * 覆盖率
+     */
+    private final long coveragePercent;
+    /**
+     * 异常信息
+     */
+    private final String errorMsg;
+    /**
+     * 评估是否因执行环境故障中止（非真实结果，不可缓存）
+     */
+    private final boolean aborted;
+
+    public EvaluationResult(long[] coveredLines, long coveragePercent, String errorMsg) {
+        this(coveredLines, coveragePercent, errorMsg, false);
+    }
+
+    private EvaluationResult(long[] coveredLines, long coveragePercent, String errorMsg, boolean aborted) {
+        this.coveredLines = coveredLines;
+        this.coveragePercent = coveragePercent;
+        this.errorMsg = errorMsg;
+        this.aborted = aborted;
+    }
+
+    /**
+     * 中止的评估：覆盖行为空，异常信息为中止原因
+     */
+    public static EvaluationResult aborted(long[] emptyLines, String reason) {
+        return new EvaluationResult(emptyLines, 0L, reason, true);
+    }
+
+    public long[] getCoveredLines() {
+        return coveredLines;
+    }
+
+    public long getCoveragePercent() {
+        return coveragePercent;
+    }
+
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+}
@@ -0,0 +1,165 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.exception.ExceptionWrapper;
+import com.whj.generate.core.exception.GenerateErrorEnum;
+import com.whj.generate.utill.InputStreamUtil;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 跨会话评估结果缓存
+ * <p>
+ * 键为（覆盖率后端, 目标类字节码哈希, 目标方法描述符, 基因向量），值为 {@link EvaluationResult}。
+ * 内存层为有界并发缓存（W-TinyLFU，按访问频率淘汰）；配置了目录时启用磁盘层：
+ * 被淘汰的条目与关闭时仍在内存中的条目写入磁盘，内存未命中时再从磁盘读回。
+ * 目标类修改后字节码哈希变化，旧结果自然失效。
+ *
+ * @author whj
+ * @date 2026-10-18 下午6:15
+ */
+@Component
+public class EvaluationResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationResultCache.class);
+    /**
+     * 磁盘条目后缀
+     */
+    private static final String ENTRY_SUFFIX = ".bin";
+    /**
+     * 内存层
+     */
+    private final Cache<String, EvaluationResult> memory;
+    /**
+     * 磁盘层目录，为 null 表示不启用
+     */
+    private final Path diskDir;
+    /**
+     * 目标方法 -> 键前缀（类字节码哈希 + 方法描述符）
+     */
+    private final Map<Method, String> methodKeyCache = new ConcurrentHashMap<>();
+
+    public EvaluationResultCache(@Value("${genetic.eval-cache.max-size:100000}") long maxSize,
+                                 @Value("${genetic.eval-cache.dir:}") String dir) {
+        this.diskDir = dir == null || dir.isBlank() ? null : Paths.get(dir);
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .<String, EvaluationResult>removalListener((key, value, cause) -> {
+                    if (cause.wasEvicted() && key != null && value != null) {
+                        writeToDisk(key, value);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 构建染色体评估结果的缓存键
+     *
+     * @param backendName 覆盖率后端名称（不同后端的行判定可能不同）
+     * @param chromosome  染色体
+     */
+    public String keyOf(String backendName, Chromosome chromosome) {
+        final StringBuilder key = new StringBuilder(backendName).append('#')
+                .append(methodKeyCache.computeIfAbsent(chromosome.getMethod(), EvaluationResultCache::methodKey));
+        for (Object gene : chromosome.getGenes()) {
+            key.append('#');
+            if (gene == null) {
+                key.append("null");
+            } else {
+                key.append(gene.getClass().getName()).append(':').append(gene);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 查询评估结果，内存未命中时查询磁盘层
+     *
+     * @return 未命中返回 null
+     */
+    public EvaluationResult get(String key) {
+        EvaluationResult result = memory.getIfPresent(key);
+        if (result == null && diskDir != null) {
+            result = readFromDisk(key);
+            if (result != null) {
+                memory.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public void put(String key, EvaluationResult result) {
+        memory.put(key, result);
+    }
+
+    /**
+     * 关闭时把内存层写入磁盘
+     */
+    @PreDestroy
+    public void flush() {
+        if (diskDir != null) {
+            memory.asMap().forEach(this::writeToDisk);
+        }
+    }
+
+    private static String methodKey(Method method) {
+        return ExceptionWrapper.process(() -> Hashing.sha256().hashBytes(InputStreamUtil.getClassBytes(method)).toString()
+                        + '#' + method.getDeclaringClass().getName() + '.' + method.getName() + Type.getMethodDescriptor(method),
+                GenerateErrorEnum.GET_OVERRIDE_FAIL, "读取目标类字节码失败");
+    }
+
+    private Path entryPath(String key) {
+        return diskDir.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + ENTRY_SUFFIX);
+    }
+
+    /**
+     * 磁盘条目先写临时文件再原子替换，条目内保存完整键以排除哈希冲突
+     */
+    private void writeToDisk(String key, EvaluationResult result) {
+        try {
+            Files.createDirectories(diskDir);
+            final Path target = entryPath(key);
+            final Path temp = Files.createTempFile(diskDir, "entry", ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeObject(key);
+                out.writeObject(result);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("评估结果写入磁盘缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private EvaluationResult readFromDisk(String key) {
+        final Path entry = entryPath(key);
+        if (!Files.exists(entry)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            return key.equals(in.readObject()) ? (EvaluationResult) in.readObject() : null;
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("读取磁盘缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个目标方法的覆盖双向索引
+ * <p>
+ * 以 {@link ChromosomeRegistry} 分配的稠密序号标识染色体，维护两份位图：
+ * 染色体序号 -> 覆盖行位图（位序号为行号），行号 -> 覆盖该行的染色体序号位图。
+ * 按染色体查行、按行查染色体以及集合运算都按 64 位字并行完成，不再扫描每行的染色体集合。
+ *
+ * @author whj
+ * @date 2026-10-18 下午7:20
+ */
+final class MethodCoverageIndex {
+    /**
+     * 染色体序号登记表
+     */
+    private final ChromosomeRegistry registry;
+    /**
+     * 序号 -> 覆盖行位图
+     */
+    private final Map<Integer, BitSet> chromosomeLines = new HashMap<>();
+    /**
+     * 行号 -> 染色体序号位图
+     */
+    private final Map<Integer, BitSet> lineChromosomes = new HashMap<>();
+    /**
+     * 所有染色体覆盖行的并集
+     */
+    private final BitSet coveredLines = new BitSet();
+
+    MethodCoverageIndex(ChromosomeRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 记录染色体覆盖的行，未登记的染色体先登记序号
+     */
+    synchronized void record(Chromosome chromosome, Iterable<Integer> lines) {
+        final int id = registry.register(chromosome);
+        final BitSet ownLines = chromosomeLines.computeIfAbsent(id, k -> new BitSet());
+        for (Integer line : lines) {
+            ownLines.set(line);
+            coveredLines.set(line);
+            lineChromosomes.computeIfAbsent(line, k -> new BitSet()).set(id);
+        }
+    }
+
+    /**
+     * 染色体覆盖行位图（副本），未记录的染色体返回空位图
+     */
+    synchronized BitSet linesOf(Chromosome chromosome) {
+        final BitSet lines = ownLines(chromosome);
+        return lines == null ? new BitSet() : (BitSet) lines.clone();
+    }
+
+    /**
+     * 已被任一染色体覆盖、但该染色体未覆盖的行
+     */
+    synchronized BitSet uncoveredLinesOf(Chromosome chromosome) {
+        final BitSet lines = (BitSet) coveredLines.clone();
+        final BitSet ownLines = ownLines(chromosome);
+        if (ownLines != null) {
+            lines.andNot(ownLines);
+        }
+        return lines;
+    }
+
+    /**
+     * 覆盖某行的染色体
+     */
+    synchronized Set<Chromosome> chromosomesOf(int line) {
+        return toChromosomes(lineChromosomes.get(line));
+    }
+
+    /**
+     * 至少覆盖一行的染色体
+     */
+    synchronized Set<Chromosome> coveringChromosomes() {
+        final BitSet ids = new BitSet(registry.size() + 1);
+        for (BitSet lineIds : lineChromosomes.values()) {
+            ids.or(lineIds);
+        }
+        return toChromosomes(ids);
+    }
+
+    /**
+     * 所有染色体覆盖行的并集（副本）
+     */
+    synchronized BitSet coveredLines() {
+        return (BitSet) coveredLines.clone();
+    }
+
+    private BitSet ownLines(Chromosome chromosome) {
+        final Integer id = registry.idOf(chromosome);
+        return id == null ? null : chromosomeLines.get(id);
+    }
+
+    private Set<Chromosome> toChromosomes(BitSet ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        final Set<Chromosome> result = new HashSet<>(ids.cardinality() * 2);
+        ids.stream().forEach(id -> result.add(registry.get(id)));
+        return result;
+    }
+}
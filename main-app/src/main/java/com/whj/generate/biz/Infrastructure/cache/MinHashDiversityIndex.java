@@ -0,0 +1,116 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.domain.Population;
+import com.whj.generate.utill.MinHash;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 会话内基于 MinHash 签名的近似多样性索引
+ * <p>
+ * 签名按覆盖等价类计算后缓存；另按签名位统计会话内所有覆盖染色体的取值个数，
+ * 目标与其余覆盖染色体的平均相似度只需 O(k) 次查表，不再逐一比较。
+ * 计数按登记表序号增量追加，每个染色体只计入一次。
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:30
+ */
+final class MinHashDiversityIndex {
+    private final MinHash minHash;
+    private final RegistryCursor cursor;
+    /**
+     * 覆盖等价类 -> 签名，覆盖行相同的染色体共用一份签名
+     */
+    private final Map<CoverageKey, int[]> signatureMap = new ConcurrentHashMap<>();
+    /**
+     * (签名位 << 32 | 取值) -> 覆盖染色体数，只在持有本对象锁时读写
+     */
+    private final Map<Long, Integer> valueCounts = new HashMap<>();
+    /**
+     * 已计入的覆盖染色体数
+     */
+    private int coveringCount;
+
+    MinHashDiversityIndex(MinHash minHash, RegistryCursor cursor) {
+        this.minHash = minHash;
+        this.cursor = cursor;
+    }
+
+    /**
+     * 估计种群两两平均相似度
+     */
+    double averageSimilarity(Population population) {
+        return MinHash.averageSimilarity(signaturesOf(population));
+    }
+
+    /**
+     * 估计种群平均最近邻相似度
+     */
+    double averageNearestSimilarity(Population population) {
+        return MinHash.averageNearestSimilarity(signaturesOf(population));
+    }
+
+    /**
+     * 估计目标与会话内其余覆盖染色体的平均相似度
+     */
+    double averageSimilarity(Chromosome target) {
+        final int[] signature = signatureOf(target);
+        if (MinHash.isEmpty(signature)) {
+            return 0.0;
+        }
+        final boolean self;
+        int others;
+        long agree = 0;
+        // 计数与染色体总数在同一把锁内读取，避免其他线程追加计数后比值超过 1
+        synchronized (this) {
+            catchUp();
+            self = cursor.visited(target);
+            others = coveringCount;
+            for (int i = 0; i < signature.length; i++) {
+                agree += valueCounts.getOrDefault(key(i, signature[i]), 0);
+            }
+        }
+        if (self) {
+            // 去掉目标自身在每一位上的计数
+            agree -= signature.length;
+            others--;
+        }
+        return others <= 0 ? 0.0 : (double) agree / signature.length / others;
+    }
+
+    /**
+     * 把新登记且已有评估记录的覆盖染色体计入签名位统计，调用方须持有本对象锁
+     */
+    private void catchUp() {
+        for (Chromosome chromosome = cursor.next(); chromosome != null; chromosome = cursor.next()) {
+            final int[] signature = signatureOf(chromosome);
+            if (MinHash.isEmpty(signature)) {
+                continue;
+            }
+            for (int i = 0; i < signature.length; i++) {
+                valueCounts.merge(key(i, signature[i]), 1, Integer::sum);
+            }
+            coveringCount++;
+        }
+    }
+
+    private List<int[]> signaturesOf(Population population) {
+        return population.getChromosomeSet().stream()
+                .map(this::signatureOf)
+                .collect(Collectors.toList());
+    }
+
+    private int[] signatureOf(Chromosome chromosome) {
+        final long[] lines = cursor.linesOf(chromosome);
+        return signatureMap.computeIfAbsent(new CoverageKey(lines), k -> minHash.signature(lines));
+    }
+
+    private static long key(int position, int value) {
+        return ((long) position << 32) | (value & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,92 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按登记序号顺序遍历已有评估记录的染色体，供增量统计只处理新增染色体（非线程安全，由调用方加锁）
+ * <p>
+ * 评估中止的染色体没有评估记录，游标越过其序号并暂存，之后重新评估得到记录时再返回。
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:50
+ */
+final class RegistryCursor {
+    /**
+     * 染色体序号登记表
+     */
+    private final ChromosomeRegistry registry;
+    /**
+     * 染色体评估记录
+     */
+    private final Map<Chromosome, EvaluationResult> evaluationMap;
+    /**
+     * 评估中止的染色体
+     */
+    private final Set<Chromosome> aborted;
+    /**
+     * 已越过但尚无评估记录的中止染色体
+     */
+    private final List<Chromosome> skipped = new ArrayList<>();
+    /**
+     * 已遍历的最大登记序号
+     */
+    private int lastId;
+
+    RegistryCursor(ChromosomeRegistry registry, Map<Chromosome, EvaluationResult> evaluationMap,
+                   Set<Chromosome> aborted) {
+        this.registry = registry;
+        this.evaluationMap = evaluationMap;
+        this.aborted = aborted;
+    }
+
+    /**
+     * 下一个已有评估记录的染色体；序号已分配但评估记录尚未写入时返回 null，下次再遍历
+     */
+    Chromosome next() {
+        for (Iterator<Chromosome> it = skipped.iterator(); it.hasNext(); ) {
+            final Chromosome chromosome = it.next();
+            if (evaluationMap.containsKey(chromosome)) {
+                it.remove();
+                return chromosome;
+            }
+        }
+        while (lastId < registry.size()) {
+            final Chromosome chromosome = registry.get(lastId + 1);
+            if (chromosome == null) {
+                return null;
+            }
+            if (evaluationMap.containsKey(chromosome)) {
+                lastId++;
+                return chromosome;
+            }
+            if (!aborted.contains(chromosome)) {
+                return null;
+            }
+            lastId++;
+            skipped.add(chromosome);
+        }
+        return null;
+    }
+
+    /**
+     * 染色体是否已被遍历
+     */
+    boolean visited(Chromosome chromosome) {
+        final Integer id = registry.idOf(chromosome);
+        return id != null && id <= lastId && !skipped.contains(chromosome);
+    }
+
+    /**
+     * 染色体覆盖行位集，未评估为空位集
+     */
+    long[] linesOf(Chromosome chromosome) {
+        final EvaluationResult record = evaluationMap.get(chromosome);
+        return record == null ? new long[0] : record.getCoveredLines();
+    }
+}
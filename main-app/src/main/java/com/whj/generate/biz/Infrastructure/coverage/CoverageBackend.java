@@ -0,0 +1,60 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.core.domain.Chromosome;
+
+import java.lang.reflect.Method;
+
+/**
+ * 覆盖率后端：执行染色体并给出目标方法的覆盖行位集
+ * <p>
+ * 位集的位序号 0 对应 {@link MethodLines#getStartLine()}，不同后端产出的结构一致，
+ * 会话可按名称选择后端。
+ *
+ * @author whj
+ * @date 2026-10-18 下午4:05
+ */
+public interface CoverageBackend {
+    /**
+     * 后端名称
+     */
+    String getName();
+
+    /**
+     * 获取目标方法行信息
+     *
+     * @param method 目标方法
+     * @return 行范围与可覆盖行
+     */
+    MethodLines getMethodLines(Method method);
+
+    /**
+     * 是否支持多线程同时执行同一目标方法
+     *
+     * @param method 目标方法
+     */
+    boolean supportsConcurrent(Method method);
+
+    /**
+     * 执行染色体并收集覆盖行
+     *
+     * @param chromosome 染色体
+     * @param concurrent 是否可能被多个线程同时调用
+     * @return 覆盖行位集
+     */
+    long[] collectCoveredLines(Chromosome chromosome, boolean concurrent);
+
+    /**
+     * 后端是否可用；不可用的后端不能被会话选用
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * 释放目标方法评估用的插桩副本等资源，后续评估时按需重建
+     *
+     * @param method 目标方法
+     */
+    default void release(Method method) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.core.exception.GenerateErrorEnum;
+import com.whj.generate.core.exception.GenerateException;
+
+/**
+ * 评估中止：执行环境故障（如工作进程超时、崩溃）导致没有得到评估结果
+ * <p>
+ * 与目标方法自身抛出的异常不同，中止不是染色体的真实结果，不能写入评估结果缓存，
+ * 染色体下次遇到时重新评估。
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:10
+ */
+public class EvaluationAbortedException extends GenerateException {
+    private static final long serialVersionUID = 1L;
+
+    public EvaluationAbortedException(String errorMsg, Throwable cause) {
+        super(GenerateErrorEnum.COLLECT_COVERAGE_FAIL, errorMsg, cause);
+    }
+}
@@ -0,0 +1,129 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.exception.ExceptionWrapper;
+import com.whj.generate.core.exception.GenerateErrorEnum;
+import com.whj.generate.utill.InputStreamUtil;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IExecutionDataAccessorGenerator;
+import org.objectweb.asm.Opcodes;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 隔离覆盖率评估器
+ * <p>
+ * 为目标类加载多份插桩副本（每份位于独立的类加载器），每份副本拥有自己的探针数组。
+ * 评估时借出一份空闲副本，多个染色体可以在不同线程上同时执行而不会混淆覆盖数据；
+ * 副本数量随并发度按需增长，最多与并发执行的线程数相同。
+ * 探针编号与原始字节码一致，可直接复用 {@link ProbeLineIndex}。
+ *
+ * @author whj
+ * @date 2026-10-18 下午3:20
+ */
+@Component
+public class IsolatedCoverageEvaluator {
+    /**
+     * 副本序号
+     */
+    private static final AtomicLong COPY_SEQUENCE = new AtomicLong();
+    /**
+     * 插桩副本池
+     */
+    private final IsolatedTargetPool<IsolatedTarget> targetPool = new IsolatedTargetPool<>(IsolatedCoverageEvaluator::createTarget,
+            target -> IsolatedProbeRegistry.unregister(target.key));
+
+    /**
+     * 目标方法是否可以隔离评估（首次调用时尝试创建副本）
+     */
+    public boolean isSupported(Method method) {
+        return targetPool.isSupported(method);
+    }
+
+    /**
+     * 丢弃目标方法的空闲副本及其探针数组
+     */
+    public void release(Method method) {
+        targetPool.clear(method);
+    }
+
+    /**
+     * 在隔离副本上执行染色体，返回探针数组快照
+     */
+    public boolean[] collectCoverageData(Chromosome chromosome) {
+        return ExceptionWrapper.process(() -> {
+            final Method sourceMethod = chromosome.getMethod();
+            final IsolatedTarget target = targetPool.borrow(sourceMethod);
+            try {
+                Arrays.fill(target.probes, false);
+                //真实调用逻辑
+                String errorMsg = target.invoker.invoke(chromosome.getGenes());
+                if (errorMsg != null) {
+                    chromosome.setErrorMsg(errorMsg);
+                }
+                return target.probes.clone();
+            } finally {
+                targetPool.release(sourceMethod, target);
+            }
+        }, GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "隔离覆盖率数据收集失败");
+    }
+
+    /**
+     * 创建一份插桩副本
+     */
+    private static IsolatedTarget createTarget(Method method) throws Exception {
+        final Class<?> sourceClass = method.getDeclaringClass();
+        final String key = sourceClass.getName() + "#" + COPY_SEQUENCE.incrementAndGet();
+        final byte[] instrumented = new Instrumenter(probeAccessor(key))
+                .instrument(InputStreamUtil.getClassBytes(method), sourceClass.getName());
+        final Method isolatedMethod = IsolatedTargetClassLoader.defineIsolatedMethod(method, instrumented);
+        // 探针数组在插桩时已按探针数注册
+        final boolean[] probes = IsolatedProbeRegistry.find(key)
+                .orElseThrow(() -> new IllegalStateException("副本探针未注册: " + key));
+        return new IsolatedTarget(key, TargetInvoker.of(isolatedMethod), probes);
+    }
+
+    /**
+     * 探针数组访问代码生成：插桩时按探针数注册数组，运行时通过 key 取回同一个数组
+     */
+    private static IExecutionDataAccessorGenerator probeAccessor(String key) {
+        return (classId, className, probeCount, mv) -> {
+            IsolatedProbeRegistry.getProbes(key, probeCount);
+            mv.visitLdcInsn(key);
+            mv.visitLdcInsn(probeCount);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC,
+                    IsolatedProbeRegistry.class.getName().replace('.', '/'),
+                    IsolatedProbeRegistry.GET_PROBES_METHOD,
+                    IsolatedProbeRegistry.GET_PROBES_DESC,
+                    false);
+            return 2;
+        };
+    }
+
+    /**
+     * 插桩副本
+     */
+    private static final class IsolatedTarget {
+        /**
+         * 副本 key
+         */
+        private final String key;
+        /**
+         * 副本中目标方法的调用器
+         */
+        private final TargetInvoker invoker;
+        /**
+         * 副本探针数组
+         */
+        private final boolean[] probes;
+
+        private IsolatedTarget(String key, TargetInvoker invoker, boolean[] probes) {
+            this.key = key;
+            this.invoker = invoker;
+            this.probes = probes;
+        }
+    }
+}
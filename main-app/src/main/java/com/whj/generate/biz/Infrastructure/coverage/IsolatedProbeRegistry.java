@@ -0,0 +1,58 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 隔离副本探针注册表
+ * <p>
+ * 隔离类加载器中的插桩副本通过 {@link #getProbes(String, int)} 取得自己的探针数组，
+ * 每个副本使用唯一 key，互不干扰，也不经过全局的 JaCoCo agent；副本被丢弃时须 {@link #unregister} 其 key。
+ * 该类会被插桩后的字节码直接调用，类名与方法签名不可随意修改。
+ *
+ * @author whj
+ * @date 2026-10-18 下午3:05
+ */
+public final class IsolatedProbeRegistry {
+    /**
+     * 插桩字节码中调用的方法名
+     */
+    static final String GET_PROBES_METHOD = "getProbes";
+    /**
+     * 插桩字节码中调用的方法描述符
+     */
+    static final String GET_PROBES_DESC = "(Ljava/lang/String;I)[Z";
+    /**
+     * 副本 key -> 探针数组
+     */
+    private static final Map<String, boolean[]> PROBES = new ConcurrentHashMap<>();
+
+    private IsolatedProbeRegistry() {
+    }
+
+    /**
+     * 获取副本的探针数组，不存在时创建
+     *
+     * @param key        副本 key
+     * @param probeCount 探针数
+     * @return 探针数组
+     */
+    public static boolean[] getProbes(String key, int probeCount) {
+        return PROBES.computeIfAbsent(key, k -> new boolean[probeCount]);
+    }
+
+    /**
+     * 查找已注册的探针数组
+     */
+    static Optional<boolean[]> find(String key) {
+        return Optional.ofNullable(PROBES.get(key));
+    }
+
+    /**
+     * 移除副本的探针数组
+     */
+    static void unregister(String key) {
+        PROBES.remove(key);
+    }
+}
@@ -0,0 +1,67 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import java.lang.reflect.Method;
+
+/**
+ * 隔离类加载器：目标类使用插桩后的字节码优先自行定义，其余类委派给父加载器
+ * <p>
+ * 目标类定义时不携带 ProtectionDomain（无代码来源），JaCoCo agent 默认不会再次插桩这类类，
+ * 因此副本只向 {@link IsolatedProbeRegistry} 写探针，静态状态也与原始类及其他副本隔离。
+ *
+ * @author whj
+ * @date 2026-10-18 下午3:10
+ */
+final class IsolatedTargetClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    /**
+     * 目标类全限定名
+     */
+    private final String targetClassName;
+    /**
+     * 插桩后的字节码
+     */
+    private final byte[] instrumentedBytes;
+
+    IsolatedTargetClassLoader(ClassLoader parent, String targetClassName, byte[] instrumentedBytes) {
+        super(parent);
+        this.targetClassName = targetClassName;
+        this.instrumentedBytes = instrumentedBytes;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!targetClassName.equals(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                loaded = defineClass(name, instrumentedBytes, 0, instrumentedBytes.length);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 在新的隔离类加载器中定义插桩字节码，返回副本中的目标方法
+     *
+     * @param sourceMethod      原始目标方法
+     * @param instrumentedBytes 插桩后的目标类字节码
+     * @return 副本中的目标方法
+     */
+    static Method defineIsolatedMethod(Method sourceMethod, byte[] instrumentedBytes) throws ReflectiveOperationException {
+        final Class<?> sourceClass = sourceMethod.getDeclaringClass();
+        final ClassLoader loader = new IsolatedTargetClassLoader(sourceClass.getClassLoader(), sourceClass.getName(), instrumentedBytes);
+        final Class<?> isolatedClass = Class.forName(sourceClass.getName(), false, loader);
+        final Method isolatedMethod = isolatedClass.getDeclaredMethod(sourceMethod.getName(), sourceMethod.getParameterTypes());
+        isolatedMethod.setAccessible(true);
+        return isolatedMethod;
+    }
+}
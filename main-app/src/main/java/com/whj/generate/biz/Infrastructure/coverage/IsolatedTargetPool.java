@@ -0,0 +1,104 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 隔离副本池：按目标方法缓存空闲副本，借出时没有空闲副本则新建，
+ * 副本数量因此随并发执行的线程数按需增长。{@link #clear(Method)} 丢弃目标方法的空闲副本，副本及其类加载器随之可被回收。
+ *
+ * @author whj
+ * @date 2026-10-18 下午4:20
+ */
+final class IsolatedTargetPool<T> {
+    private static final Logger logger = LoggerFactory.getLogger(IsolatedTargetPool.class);
+
+    /**
+     * 副本工厂
+     */
+    @FunctionalInterface
+    interface TargetFactory<T> {
+        T create(Method method) throws Exception;
+    }
+
+    /**
+     * 副本释放回调
+     */
+    @FunctionalInterface
+    interface TargetDisposer<T> {
+        void dispose(T target);
+    }
+
+    /**
+     * 目标方法 -> 空闲副本
+     */
+    private final Map<Method, Queue<T>> idleTargets = new ConcurrentHashMap<>();
+    /**
+     * 目标方法是否可以创建副本
+     */
+    private final Map<Method, Boolean> supported = new ConcurrentHashMap<>();
+    /**
+     * 副本工厂
+     */
+    private final TargetFactory<T> factory;
+    /**
+     * 副本释放回调
+     */
+    private final TargetDisposer<T> disposer;
+
+    IsolatedTargetPool(TargetFactory<T> factory) {
+        this(factory, target -> {
+        });
+    }
+
+    IsolatedTargetPool(TargetFactory<T> factory, TargetDisposer<T> disposer) {
+        this.factory = factory;
+        this.disposer = disposer;
+    }
+
+    /**
+     * 目标方法是否可以创建副本（首次调用时尝试创建一份）
+     */
+    boolean isSupported(Method method) {
+        return supported.computeIfAbsent(method, m -> {
+            try {
+                release(m, factory.create(m));
+                return true;
+            } catch (Exception e) {
+                logger.warn("目标方法 {} 无法创建隔离副本: {}", m.getName(), e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    T borrow(Method method) throws Exception {
+        Queue<T> idle = idleTargets.get(method);
+        T target = idle == null ? null : idle.poll();
+        return target != null ? target : factory.create(method);
+    }
+
+    void release(Method method, T target) {
+        idleTargets.computeIfAbsent(method, m -> new ConcurrentLinkedQueue<>()).offer(target);
+    }
+
+    /**
+     * 丢弃目标方法的空闲副本；清空时仍被借出的副本归还后留在池中，下次清空时丢弃
+     */
+    void clear(Method method) {
+        supported.remove(method);
+        final Queue<T> idle = idleTargets.remove(method);
+        if (idle == null) {
+            return;
+        }
+        T target;
+        while ((target = idle.poll()) != null) {
+            disposer.dispose(target);
+        }
+    }
+}
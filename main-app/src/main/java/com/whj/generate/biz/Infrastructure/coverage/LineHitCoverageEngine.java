@@ -0,0 +1,114 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.exception.ExceptionWrapper;
+import com.whj.generate.core.exception.GenerateErrorEnum;
+import com.whj.generate.utill.InputStreamUtil;
+import org.objectweb.asm.Type;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 轻量行命中覆盖率引擎
+ * <p>
+ * 不经过 JaCoCo：用 {@link LineHitInstrumenter} 只对目标方法插入行命中探针，
+ * 探针直接写入按 {@code line - startLine} 编号的 long[] 位集，执行结束后即为覆盖行位集，
+ * 省去探针到行的映射以及指令、分支、圈复杂度计数。
+ * 插桩副本与 {@link IsolatedCoverageEvaluator} 一样位于独立的类加载器，每份副本持有自己的位集，天然支持并发评估。
+ * 一行的第一条指令被执行即视为该行被覆盖。
+ *
+ * @author whj
+ * @date 2026-10-18 下午4:50
+ */
+@Component
+public class LineHitCoverageEngine implements CoverageBackend {
+    /**
+     * 后端名称
+     */
+    public static final String NAME = "line-hit";
+    /**
+     * 目标方法行信息缓存
+     */
+    private final Map<Method, MethodLines> methodLinesCache = new ConcurrentHashMap<>();
+    /**
+     * 插桩副本池
+     */
+    private final IsolatedTargetPool<LineHitTarget> targetPool = new IsolatedTargetPool<>(this::createTarget);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public MethodLines getMethodLines(Method method) {
+        return methodLinesCache.computeIfAbsent(method, m -> ExceptionWrapper.process(
+                () -> LineHitInstrumenter.scanLines(InputStreamUtil.getClassBytes(m), m.getName(), Type.getMethodDescriptor(m)),
+                GenerateErrorEnum.GET_OVERRIDE_FAIL, "读取目标方法行号失败"));
+    }
+
+    @Override
+    public boolean supportsConcurrent(Method method) {
+        return targetPool.isSupported(method);
+    }
+
+    @Override
+    public void release(Method method) {
+        targetPool.clear(method);
+    }
+
+    @Override
+    public long[] collectCoveredLines(Chromosome chromosome, boolean concurrent) {
+        return ExceptionWrapper.process(() -> {
+            final Method sourceMethod = chromosome.getMethod();
+            final LineHitTarget target = targetPool.borrow(sourceMethod);
+            try {
+                Arrays.fill(target.hits, 0L);
+                //真实调用逻辑
+                String errorMsg = target.invoker.invoke(chromosome.getGenes());
+                if (errorMsg != null) {
+                    chromosome.setErrorMsg(errorMsg);
+                }
+                return target.hits.clone();
+            } finally {
+                targetPool.release(sourceMethod, target);
+            }
+        }, GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "行命中覆盖数据收集失败");
+    }
+
+    /**
+     * 创建一份行命中插桩副本，并为其分配位集
+     */
+    private LineHitTarget createTarget(Method method) throws Exception {
+        final MethodLines methodLines = getMethodLines(method);
+        final byte[] instrumented = LineHitInstrumenter.instrument(InputStreamUtil.getClassBytes(method),
+                method.getName(), Type.getMethodDescriptor(method), methodLines.getStartLine());
+        final Method isolatedMethod = IsolatedTargetClassLoader.defineIsolatedMethod(method, instrumented);
+        final long[] hits = methodLines.newLineBitSet();
+        isolatedMethod.getDeclaringClass().getField(LineHitInstrumenter.HITS_FIELD).set(null, hits);
+        return new LineHitTarget(TargetInvoker.of(isolatedMethod), hits);
+    }
+
+    /**
+     * 行命中插桩副本
+     */
+    private static final class LineHitTarget {
+        /**
+         * 副本中目标方法的调用器
+         */
+        private final TargetInvoker invoker;
+        /**
+         * 副本行命中位集
+         */
+        private final long[] hits;
+
+        private LineHitTarget(TargetInvoker invoker, long[] hits) {
+            this.invoker = invoker;
+            this.hits = hits;
+        }
+    }
+}
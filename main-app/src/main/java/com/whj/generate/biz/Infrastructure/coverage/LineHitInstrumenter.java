@@ -0,0 +1,234 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.utill.BitSetUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.TreeSet;
+
+/**
+ * 行命中插桩器
+ * <p>
+ * 只对目标方法插桩：在每个行号的第一条指令之前插入一段置位代码，
+ * 把静态字段 {@value #HITS_FIELD}（long[] 位集）中 {@code line - startLine} 对应的位置 1。
+ * 插入的代码不含跳转、不占用局部变量且栈平衡，原有栈帧保持有效，只需重新计算最大栈深。
+ *
+ * @author whj
+ * @date 2026-10-18 下午4:35
+ */
+final class LineHitInstrumenter {
+    /**
+     * 行命中位集字段名
+     */
+    static final String HITS_FIELD = "$gaLineHits";
+    /**
+     * 行命中位集字段描述符
+     */
+    private static final String HITS_DESC = "[J";
+
+    private LineHitInstrumenter() {
+    }
+
+    /**
+     * 读取目标方法的行号表，得到行范围与可覆盖行
+     *
+     * @param classBytes 目标类原始字节码
+     * @param methodName 目标方法名
+     * @param methodDesc 目标方法描述符
+     * @return 目标方法行信息
+     */
+    static MethodLines scanLines(byte[] classBytes, String methodName, String methodDesc) {
+        final TreeSet<Integer> lines = new TreeSet<>();
+        new ClassReader(classBytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                             String signature, String[] exceptions) {
+                if (!name.equals(methodName) || !descriptor.equals(methodDesc)) {
+                    return null;
+                }
+                return new MethodVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visitLineNumber(int line, Label start) {
+                        lines.add(line);
+                    }
+                };
+            }
+        }, ClassReader.SKIP_FRAMES);
+        if (lines.isEmpty()) {
+            throw new IllegalStateException("目标方法无行号信息: " + methodName + methodDesc);
+        }
+        final int startLine = lines.first();
+        final int endLine = lines.last();
+        final long[] coverable = BitSetUtils.newBitSet(endLine - startLine + 1);
+        lines.forEach(line -> BitSetUtils.set(coverable, line - startLine));
+        return new MethodLines(startLine, endLine, coverable);
+    }
+
+    /**
+     * 为目标方法插入行命中探针
+     *
+     * @param classBytes 目标类原始字节码
+     * @param methodName 目标方法名
+     * @param methodDesc 目标方法描述符
+     * @param startLine  目标方法起始行
+     * @return 插桩后的字节码
+     */
+    static byte[] instrument(byte[] classBytes, String methodName, String methodDesc, int startLine) {
+        final ClassReader reader = new ClassReader(classBytes);
+        final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            private String owner;
+
+            @Override
+            public void visit(int version, int access, String name, String signature,
+                              String superName, String[] interfaces) {
+                owner = name;
+                super.visit(version, access, name, signature, superName, interfaces);
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                             String signature, String[] exceptions) {
+                MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+                if (name.equals(methodName) && descriptor.equals(methodDesc)) {
+                    return new LineHitMethodVisitor(mv, owner, startLine);
+                }
+                return mv;
+            }
+
+            @Override
+            public void visitEnd() {
+                super.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_TRANSIENT,
+                        HITS_FIELD, HITS_DESC, null, null).visitEnd();
+                super.visitEnd();
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * 行号出现后，在下一条真实指令之前插入置位代码（行号标签之后可能还有栈帧，不能插在栈帧之前）
+     */
+    private static final class LineHitMethodVisitor extends MethodVisitor {
+        private final String owner;
+        private final int startLine;
+        /**
+         * 待插入探针的行号，-1 表示没有
+         */
+        private int pendingLine = -1;
+
+        private LineHitMethodVisitor(MethodVisitor mv, String owner, int startLine) {
+            super(Opcodes.ASM9, mv);
+            this.owner = owner;
+            this.startLine = startLine;
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            super.visitLineNumber(line, start);
+            pendingLine = line;
+        }
+
+        /**
+         * hits[index >>> 6] |= 1L << index
+         */
+        private void flushProbe() {
+            if (pendingLine < 0) {
+                return;
+            }
+            final int index = pendingLine - startLine;
+            pendingLine = -1;
+            super.visitFieldInsn(Opcodes.GETSTATIC, owner, HITS_FIELD, HITS_DESC);
+            super.visitLdcInsn(index >>> 6);
+            super.visitInsn(Opcodes.DUP2);
+            super.visitInsn(Opcodes.LALOAD);
+            super.visitLdcInsn(1L << index);
+            super.visitInsn(Opcodes.LOR);
+            super.visitInsn(Opcodes.LASTORE);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            flushProbe();
+            super.visitInsn(opcode);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            flushProbe();
+            super.visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            flushProbe();
+            super.visitVarInsn(opcode, varIndex);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            flushProbe();
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            flushProbe();
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            flushProbe();
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                           Object... bootstrapMethodArguments) {
+            flushProbe();
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            flushProbe();
+            super.visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            flushProbe();
+            super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            flushProbe();
+            super.visitIincInsn(varIndex, increment);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            flushProbe();
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            flushProbe();
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            flushProbe();
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.utill.BitSetUtils;
+
+/**
+ * 目标方法行信息（不可变）：行范围与可覆盖行位集，位序号 0 对应起始行
+ *
+ * @author whj
+ * @date 2026-10-18 下午4:02
+ */
+public final class MethodLines {
+    /**
+     * 方法起始行
+     */
+    private final int startLine;
+    /**
+     * 方法结束行
+     */
+    private final int endLine;
+    /**
+     * 可覆盖行位集
+     */
+    private final long[] coverableLines;
+    /**
+     * 可覆盖行数
+     */
+    private final int coverableCount;
+
+    public MethodLines(int startLine, int endLine, long[] coverableLines) {
+        this.startLine = startLine;
+        this.endLine = endLine;
+        this.coverableLines = coverableLines.clone();
+        this.coverableCount = BitSetUtils.cardinality(coverableLines);
+    }
+
+    /**
+     * 计算覆盖行位集对应的方法行覆盖率（0 ~ 100）
+     */
+    public double coveragePercent(long[] coveredLines) {
+        return coverableCount == 0 ? 0.0 :
+                BitSetUtils.andCardinality(coveredLines, coverableLines) * 100.0 / coverableCount;
+    }
+
+    /**
+     * 创建与本方法行范围等长的空位集
+     */
+    public long[] newLineBitSet() {
+        return BitSetUtils.newBitSet(getLineCount());
+    }
+
+    public int getStartLine() {
+        return startLine;
+    }
+
+    public int getEndLine() {
+        return endLine;
+    }
+
+    public int getLineCount() {
+        return endLine - startLine + 1;
+    }
+
+    public int getCoverableCount() {
+        return coverableCount;
+    }
+}
@@ -0,0 +1,164 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.utill.BitSetUtils;
+import org.jacoco.agent.rt.internal_aeaf9ab.asm.Type;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * 目标方法的探针-行号索引（不可变）
+ * <p>
+ * JaCoCo 中指令的覆盖状态由探针逐个向前驱传播得到，因此一组探针覆盖的行恰好是各探针单独覆盖行的并集。
+ * 每个目标方法只分析一次字节码，为每个探针预先算出它所覆盖的行位集，
+ * 之后每次评估只需把命中探针的位集按位或即可得到覆盖行。
+ *
+ * @author whj
+ * @date 2026-10-18 下午2:25
+ */
+public final class ProbeLineIndex {
+    /**
+     * 目标方法行信息
+     */
+    private final MethodLines methodLines;
+    /**
+     * 探针序号 -> 覆盖行位集，未覆盖目标方法任何行的探针为 null
+     */
+    private final long[][] probeLines;
+
+    private ProbeLineIndex(MethodLines methodLines, long[][] probeLines) {
+        this.methodLines = methodLines;
+        this.probeLines = probeLines;
+    }
+
+    /**
+     * 分析目标类字节码，构建目标方法的探针-行号索引
+     *
+     * @param classBytes 目标类原始字节码
+     * @param className  虚拟机内部类名
+     * @param classId    JaCoCo 类标识
+     * @param method     目标方法
+     * @return 探针-行号索引
+     */
+    public static ProbeLineIndex build(byte[] classBytes, String className, long classId,
+                                       Method method) throws IOException {
+        int probeCount = countProbes(classBytes, className);
+        // 无执行数据的分析：确定方法行范围与可覆盖行
+        IMethodCoverage methodCoverage = analyzeTargetMethod(classBytes, className, classId, null, method);
+        if (methodCoverage == null || methodCoverage.getFirstLine() == ISourceNode.UNKNOWN_LINE) {
+            throw new IllegalStateException("目标方法无行号信息: " + method);
+        }
+        int startLine = methodCoverage.getFirstLine();
+        int endLine = methodCoverage.getLastLine();
+        long[] methodLines = collectLines(methodCoverage, startLine, endLine, false);
+
+        // 逐个探针分析其覆盖的行
+        long[][] probeLines = new long[probeCount][];
+        for (int probe = 0; probe < probeCount; probe++) {
+            boolean[] probes = new boolean[probeCount];
+            probes[probe] = true;
+            IClassCoverage classCoverage = analyzeClass(classBytes, className, classId, probes);
+            long[] lines = collectLines(classCoverage, startLine, endLine, true);
+            if (BitSetUtils.cardinality(lines) > 0) {
+                probeLines[probe] = lines;
+            }
+        }
+        return new ProbeLineIndex(new MethodLines(startLine, endLine, methodLines), probeLines);
+    }
+
+    /**
+     * 将探针数组映射为覆盖行位集
+     */
+    public long[] coveredLines(boolean[] probes) {
+        long[] covered = methodLines.newLineBitSet();
+        int count = Math.min(probes.length, probeLines.length);
+        for (int probe = 0; probe < count; probe++) {
+            if (probes[probe] && probeLines[probe] != null) {
+                BitSetUtils.or(covered, probeLines[probe]);
+            }
+        }
+        return covered;
+    }
+
+    public MethodLines getMethodLines() {
+        return methodLines;
+    }
+
+    /**
+     * 统计目标类探针数：JaCoCo 插桩时会以探针总数回调数据访问代码生成器
+     */
+    private static int countProbes(byte[] classBytes, String className) throws IOException {
+        final int[] probeCount = new int[1];
+        new Instrumenter((classId, name, count, mv) -> {
+            probeCount[0] = count;
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            return 1;
+        }).instrument(classBytes, className);
+        return probeCount[0];
+    }
+
+    /**
+     * 收集节点在 [startLine, endLine] 内的行位集
+     *
+     * @param coveredOnly true 只收集被覆盖的行，false 收集全部可覆盖行
+     */
+    private static long[] collectLines(ISourceNode node, int startLine, int endLine, boolean coveredOnly) {
+        long[] lines = BitSetUtils.newBitSet(endLine - startLine + 1);
+        if (node == null) {
+            return lines;
+        }
+        for (int i = startLine; i <= endLine; i++) {
+            ILine line = node.getLine(i);
+            int status = line == null ? ICounter.EMPTY : line.getStatus();
+            boolean matched = coveredOnly
+                    ? status == ICounter.FULLY_COVERED || status == ICounter.PARTLY_COVERED
+                    : status != ICounter.EMPTY;
+            if (matched) {
+                BitSetUtils.set(lines, i - startLine);
+            }
+        }
+        return lines;
+    }
+
+    private static IMethodCoverage analyzeTargetMethod(byte[] classBytes, String className, long classId,
+                                                       boolean[] probes, Method method) throws IOException {
+        IClassCoverage classCoverage = analyzeClass(classBytes, className, classId, probes);
+        if (classCoverage == null) {
+            return null;
+        }
+        return classCoverage.getMethods().stream()
+                .filter(mc -> isTargetMethod(mc, method))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static IClassCoverage analyzeClass(byte[] classBytes, String className, long classId,
+                                               boolean[] probes) throws IOException {
+        final ExecutionDataStore store = new ExecutionDataStore();
+        if (probes != null) {
+            store.put(new ExecutionData(classId, className, probes));
+        }
+        final CoverageBuilder builder = new CoverageBuilder();
+        new Analyzer(store, builder).analyzeClass(classBytes, className);
+        return builder.getClasses().stream().findFirst().orElse(null);
+    }
+
+    /**
+     * 判断是否为目标方法
+     */
+    private static boolean isTargetMethod(IMethodCoverage mc, Method method) {
+        return mc.getName().equals(method.getName())
+                && mc.getDesc().equals(Type.getMethodDescriptor(method));
+    }
+}
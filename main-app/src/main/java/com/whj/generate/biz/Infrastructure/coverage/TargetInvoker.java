@@ -0,0 +1,129 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.utill.GeneConvertUtil;
+import com.whj.generate.utill.ReflectionUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 目标方法调用器，每个目标方法只构建一次
+ * <p>
+ * 构建时预先解析每个参数的基因转换器，并把目标方法绑定为接收 Object[] 的 {@link MethodHandle}；
+ * 静态方法不实例化，实例方法复用缓存的构造器句柄（每次评估仍创建新实例，避免状态残留）。
+ * 转换规则见 {@link GeneConvertUtil}，错误信息与 {@link ReflectionUtil#invokeSafe} 保持一致；
+ * 基因池中的基因已在加载时转换为参数类型，此处只做兜底。
+ *
+ * @author whj
+ * @date 2026-10-18 下午6:40
+ */
+public final class TargetInvoker {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * 目标方法句柄：(Object[] 实参，实例方法首元素为接收者) -> Object
+     */
+    private final MethodHandle target;
+    /**
+     * 构造器句柄，静态方法为 null
+     */
+    private final MethodHandle constructor;
+    /**
+     * 参数类型
+     */
+    private final Class<?>[] paramTypes;
+    /**
+     * 参数转换器
+     */
+    private final UnaryOperator<Object>[] converters;
+
+    private TargetInvoker(MethodHandle target, MethodHandle constructor, Class<?>[] paramTypes, UnaryOperator<Object>[] converters) {
+        this.target = target;
+        this.constructor = constructor;
+        this.paramTypes = paramTypes;
+        this.converters = converters;
+    }
+
+    /**
+     * 为目标方法构建调用器
+     *
+     * @param method 目标方法
+     * @return 调用器
+     */
+    public static TargetInvoker of(Method method) throws ReflectiveOperationException {
+        method.setAccessible(true);
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodHandle handle = LOOKUP.unreflect(method);
+        handle = handle.asType(handle.type().generic())
+                .asSpreader(Object[].class, method.getParameterCount() + (isStatic ? 0 : 1));
+
+        MethodHandle constructor = null;
+        if (!isStatic) {
+            final Constructor<?> declared = method.getDeclaringClass().getDeclaredConstructor();
+            declared.setAccessible(true);
+            constructor = LOOKUP.unreflectConstructor(declared);
+            constructor = constructor.asType(constructor.type().generic());
+        }
+
+        final Class<?>[] paramTypes = method.getParameterTypes();
+        @SuppressWarnings("unchecked")
+        final UnaryOperator<Object>[] converters = new UnaryOperator[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            converters[i] = GeneConvertUtil.converterOf(paramTypes[i]);
+        }
+        return new TargetInvoker(handle, constructor, paramTypes, converters);
+    }
+
+    /**
+     * 执行目标方法
+     *
+     * @param genes 基因
+     * @return 成功返回 null，否则返回错误信息
+     * @throws Exception 目标类实例化失败
+     */
+    public String invoke(Object[] genes) throws Exception {
+        // 参数数量检查
+        if (genes.length != paramTypes.length) {
+            return String.format("参数数量不匹配，预期: %d，实际: %d", paramTypes.length, genes.length);
+        }
+        final int offset = constructor == null ? 0 : 1;
+        final Object[] args = new Object[genes.length + offset];
+        // 参数类型转换
+        for (int i = 0; i < genes.length; i++) {
+            final Object converted;
+            try {
+                converted = genes[i] == null ? null : converters[i].apply(genes[i]);
+            } catch (IllegalArgumentException e) {
+                return String.format("参数类型错误：%s", e.getMessage());
+            } catch (Exception e) {
+                return String.format("反射调用异常：%s", e.getMessage());
+            }
+            if (!GeneConvertUtil.isAssignable(paramTypes[i], converted)) {
+                return "参数类型错误：argument type mismatch";
+            }
+            args[i + offset] = converted;
+        }
+        if (constructor != null) {
+            args[0] = newInstance();
+        }
+        try {
+            final Object ignored = (Object) target.invokeExact(args);
+            return null;
+        } catch (Throwable e) {
+            return String.format("%s", e.getMessage());
+        }
+    }
+
+    private Object newInstance() throws Exception {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("目标类实例化失败", e);
+        }
+    }
+}
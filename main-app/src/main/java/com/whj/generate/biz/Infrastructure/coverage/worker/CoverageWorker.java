@@ -0,0 +1,92 @@
+package com.whj.generate.biz.Infrastructure.coverage.worker;
+
+import com.whj.generate.biz.Infrastructure.coverage.LineHitCoverageEngine;
+import com.whj.generate.core.domain.Chromosome;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 覆盖率工作进程入口
+ * <p>
+ * 由 {@link WorkerPoolCoverageBackend} 以子 JVM 方式启动，通过标准输入/输出与服务端交换
+ * {@link WorkerRequest} / {@link WorkerResponse}，目标方法在本进程内用行命中插桩执行。
+ * 标准输出专用于协议，目标方法的打印被重定向到标准错误。
+ *
+ * @author whj
+ * @date 2026-10-18 下午5:25
+ */
+public final class CoverageWorker {
+    /**
+     * 目标方法缓存：类名#方法名描述符 -> 方法
+     */
+    private final Map<String, Method> methodCache = new HashMap<>();
+    /**
+     * 行命中覆盖率引擎
+     */
+    private final LineHitCoverageEngine engine = new LineHitCoverageEngine();
+
+    private CoverageWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        out.flush();
+        final ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        final CoverageWorker worker = new CoverageWorker();
+        while (true) {
+            final WorkerRequest request;
+            try {
+                request = (WorkerRequest) in.readObject();
+            } catch (EOFException e) {
+                // 服务端关闭管道，正常退出
+                return;
+            }
+            out.writeObject(worker.evaluate(request));
+            out.reset();
+            out.flush();
+        }
+    }
+
+    /**
+     * 执行一次评估
+     */
+    private WorkerResponse evaluate(WorkerRequest request) {
+        try {
+            final Method method = resolveMethod(request);
+            final Chromosome chromosome = new Chromosome(method.getDeclaringClass(), method, request.getGenes());
+            final long[] coveredLines = engine.collectCoveredLines(chromosome, false);
+            return WorkerResponse.success(coveredLines, chromosome.getErrorMsg());
+        } catch (Throwable e) {
+            return WorkerResponse.failure(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private Method resolveMethod(WorkerRequest request) throws ClassNotFoundException, NoSuchMethodException {
+        final String key = request.getClassName() + "#" + request.getMethodName() + request.getMethodDesc();
+        Method method = methodCache.get(key);
+        if (method != null) {
+            return method;
+        }
+        final Class<?> targetClass = Class.forName(request.getClassName());
+        for (Method declared : targetClass.getDeclaredMethods()) {
+            if (declared.getName().equals(request.getMethodName())
+                    && Type.getMethodDescriptor(declared).equals(request.getMethodDesc())) {
+                methodCache.put(key, declared);
+                return declared;
+            }
+        }
+        throw new NoSuchMethodException(key);
+    }
+}
@@ -0,0 +1,209 @@
+package com.whj.generate.biz.Infrastructure.coverage.worker;
+
+import com.whj.generate.biz.Infrastructure.coverage.CoverageBackend;
+import com.whj.generate.biz.Infrastructure.coverage.EvaluationAbortedException;
+import com.whj.generate.biz.Infrastructure.coverage.LineHitCoverageEngine;
+import com.whj.generate.biz.Infrastructure.coverage.MethodLines;
+import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.exception.ExceptionWrapper;
+import com.whj.generate.core.exception.GenerateErrorEnum;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作进程池覆盖率后端
+ * <p>
+ * 把基因向量发送给本地的子 JVM 工作进程执行，工作进程用行命中插桩收集覆盖行并回传位集。
+ * 目标方法的打印、静态状态修改、死循环或崩溃都只影响工作进程：
+ * 超时的进程被强制终止，崩溃的进程被丢弃，下次借用时重新启动，本次评估以 {@link EvaluationAbortedException} 中止。
+ * 工作进程数即并发评估上限。启动时预先拉起一个工作进程，无法启动时后端不可用，会话不能选用。
+ *
+ * @author whj
+ * @date 2026-10-18 下午5:40
+ */
+@Component
+public class WorkerPoolCoverageBackend implements CoverageBackend {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerPoolCoverageBackend.class);
+    /**
+     * 后端名称
+     */
+    public static final String NAME = "worker";
+    /**
+     * 行号信息与工作进程内的插桩一致，直接复用行命中引擎
+     */
+    private final LineHitCoverageEngine lineHitEngine;
+    /**
+     * 空闲工作进程
+     */
+    private final Queue<WorkerProcess> idleWorkers = new ConcurrentLinkedQueue<>();
+    /**
+     * 工作进程数许可
+     */
+    private final Semaphore workerPermits;
+    /**
+     * 单次评估超时（毫秒）
+     */
+    private final long timeoutMillis;
+    /**
+     * 工作进程 JVM 参数
+     */
+    private final List<String> jvmArgs;
+    /**
+     * 工作进程无法启动的原因，为 null 表示可用
+     */
+    private volatile String unavailableReason;
+    /**
+     * 超时看门狗
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "coverage-worker-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public WorkerPoolCoverageBackend(LineHitCoverageEngine lineHitEngine,
+                                     @Value("${genetic.worker.size:4}") int workerSize,
+                                     @Value("${genetic.worker.timeout-ms:5000}") long timeoutMillis,
+                                     @Value("${genetic.worker.jvm-args:-Xmx256m}") List<String> jvmArgs) {
+        this.lineHitEngine = lineHitEngine;
+        this.workerPermits = new Semaphore(workerSize);
+        this.timeoutMillis = timeoutMillis;
+        this.jvmArgs = jvmArgs;
+    }
+
+    /**
+     * 预先启动一个工作进程，确认工作进程可以在当前部署方式下启动
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            final WorkerProcess worker = WorkerProcess.start(jvmArgs);
+            if (!worker.isAlive()) {
+                worker.close();
+                throw new IOException("工作进程启动后立即退出");
+            }
+            idleWorkers.offer(worker);
+        } catch (IOException | RuntimeException e) {
+            unavailableReason = e.getClass().getSimpleName() + ": " + e.getMessage();
+            logger.error("工作进程无法启动，{} 后端不可用: {}", NAME, unavailableReason);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return unavailableReason == null;
+    }
+
+    @Override
+    public MethodLines getMethodLines(Method method) {
+        return lineHitEngine.getMethodLines(method);
+    }
+
+    @Override
+    public boolean supportsConcurrent(Method method) {
+        return true;
+    }
+
+    @Override
+    public long[] collectCoveredLines(Chromosome chromosome, boolean concurrent) {
+        return ExceptionWrapper.process(() -> {
+            if (unavailableReason != null) {
+                throw new IllegalStateException("工作进程无法启动: " + unavailableReason);
+            }
+            final Method method = chromosome.getMethod();
+            final WorkerRequest request = new WorkerRequest(method.getDeclaringClass().getName(), method.getName(),
+                    Type.getMethodDescriptor(method), checkSerializable(chromosome.getGenes()));
+            final WorkerProcess worker = borrow();
+            boolean reusable = false;
+            final ScheduledFuture<?> timeout = watchdog.schedule(worker::close, timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                final WorkerResponse response = worker.evaluate(request);
+                reusable = true;
+                if (response.getFailure() != null) {
+                    throw new IllegalStateException("工作进程评估失败: " + response.getFailure());
+                }
+                if (response.getErrorMsg() != null) {
+                    chromosome.setErrorMsg(response.getErrorMsg());
+                }
+                return response.getCoveredLines();
+            } catch (IOException e) {
+                // 进程崩溃或超时被终止：没有得到评估结果，由调用方记为异常输入且不缓存
+                final boolean timedOut = !timeout.cancel(false);
+                final String reason = timedOut ? "评估超时（" + timeoutMillis + "ms）" : "工作进程异常退出: " + e.getMessage();
+                logger.warn("工作进程评估中断，丢弃该进程: {}", reason);
+                throw new EvaluationAbortedException(reason, e);
+            } finally {
+                timeout.cancel(false);
+                release(worker, reusable && worker.isAlive());
+            }
+        }, GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "工作进程覆盖数据收集失败");
+    }
+
+    /**
+     * 借用工作进程：没有空闲进程时启动新进程，进程总数不超过许可数
+     */
+    private WorkerProcess borrow() throws IOException, InterruptedException {
+        workerPermits.acquire();
+        try {
+            final WorkerProcess idle = idleWorkers.poll();
+            return idle != null ? idle : WorkerProcess.start(jvmArgs);
+        } catch (IOException | RuntimeException e) {
+            workerPermits.release();
+            throw e;
+        }
+    }
+
+    private void release(WorkerProcess worker, boolean reusable) {
+        if (reusable) {
+            idleWorkers.offer(worker);
+        } else {
+            worker.close();
+        }
+        workerPermits.release();
+    }
+
+    /**
+     * 基因需要序列化后发送给工作进程
+     */
+    private static Object[] checkSerializable(Object[] genes) {
+        for (Object gene : genes) {
+            if (gene != null && !(gene instanceof Serializable)) {
+                throw new IllegalArgumentException("基因无法发送给工作进程: " + gene.getClass().getName());
+            }
+        }
+        return genes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        WorkerProcess worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.whj.generate.biz.Infrastructure.coverage.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarFile;
+
+/**
+ * 一个覆盖率工作进程（子 JVM）及其协议流
+ *
+ * @author whj
+ * @date 2026-10-18 下午5:35
+ */
+final class WorkerProcess implements Closeable {
+    /**
+     * Spring Boot 可执行 jar 的属性启动器，按 loader.main 启动 BOOT-INF 下的类
+     */
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.PropertiesLauncher";
+    /**
+     * 可执行 jar 中应用类所在目录
+     */
+    private static final String BOOT_INF_CLASSES = "BOOT-INF/classes/";
+
+    private final Process process;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    private WorkerProcess(Process process) throws IOException {
+        this.process = process;
+        this.out = new ObjectOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.out.flush();
+        // 阻塞直到工作进程写出流头，即进程已就绪
+        this.in = new ObjectInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    /**
+     * 以当前应用的类路径启动工作进程
+     *
+     * @param jvmArgs 额外的 JVM 参数
+     */
+    static WorkerProcess start(List<String> jvmArgs) throws IOException {
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(launchArgs());
+        final Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            return new WorkerProcess(process);
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    /**
+     * 工作进程的类路径与入口参数
+     * <p>
+     * 以 Spring Boot 可执行 jar 运行时，java.class.path 只有 jar 本身，应用类与依赖位于 BOOT-INF 下，
+     * 需经 PropertiesLauncher 以 loader.main 启动；否则优先使用应用类加载器的 file URL，最后退回 java.class.path。
+     */
+    private static List<String> launchArgs() throws IOException {
+        final String classPath = System.getProperty("java.class.path");
+        if (isBootJar(classPath)) {
+            return List.of("-Dloader.main=" + CoverageWorker.class.getName(), "-cp", classPath, PROPERTIES_LAUNCHER);
+        }
+        return List.of("-cp", classLoaderPath().orElse(classPath), CoverageWorker.class.getName());
+    }
+
+    private static boolean isBootJar(String classPath) throws IOException {
+        if (classPath.contains(File.pathSeparator) || !classPath.endsWith(".jar") || !new File(classPath).isFile()) {
+            return false;
+        }
+        try (JarFile jar = new JarFile(classPath)) {
+            return jar.getEntry(BOOT_INF_CLASSES) != null;
+        }
+    }
+
+    /**
+     * 应用类加载器的类路径，仅当其为全部由本地文件组成的 URLClassLoader 时可用
+     */
+    private static Optional<String> classLoaderPath() {
+        if (!(CoverageWorker.class.getClassLoader() instanceof URLClassLoader loader)) {
+            return Optional.empty();
+        }
+        final List<String> entries = new ArrayList<>();
+        for (URL url : loader.getURLs()) {
+            if (!"file".equals(url.getProtocol())) {
+                return Optional.empty();
+            }
+            try {
+                entries.add(new File(url.toURI()).getPath());
+            } catch (URISyntaxException e) {
+                return Optional.empty();
+            }
+        }
+        return entries.isEmpty() ? Optional.empty() : Optional.of(String.join(File.pathSeparator, entries));
+    }
+
+    /**
+     * 发送请求并等待结果；进程崩溃或被终止时抛出 IOException
+     */
+    WorkerResponse evaluate(WorkerRequest request) throws IOException {
+        out.writeObject(request);
+        out.reset();
+        out.flush();
+        try {
+            return (WorkerResponse) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("无法解析工作进程响应", e);
+        }
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+}
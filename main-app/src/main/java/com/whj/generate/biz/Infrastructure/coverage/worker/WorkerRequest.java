@@ -0,0 +1,52 @@
+package com.whj.generate.biz.Infrastructure.coverage.worker;
+
+import java.io.Serializable;
+
+/**
+ * 工作进程评估请求：目标方法与基因向量
+ *
+ * @author whj
+ * @date 2026-10-18 下午5:20
+ */
+public final class WorkerRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 目标类全限定名
+     */
+    private final String className;
+    /**
+     * 目标方法名
+     */
+    private final String methodName;
+    /**
+     * 目标方法描述符
+     */
+    private final String methodDesc;
+    /**
+     * 基因向量
+     */
+    private final Object[] genes;
+
+    public WorkerRequest(String className, String methodName, String methodDesc, Object[] genes) {
+        this.className = className;
+        this.methodName = methodName;
+        this.methodDesc = methodDesc;
+        this.genes = genes;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getMethodDesc() {
+        return methodDesc;
+    }
+
+    public Object[] getGenes() {
+        return genes;
+    }
+}
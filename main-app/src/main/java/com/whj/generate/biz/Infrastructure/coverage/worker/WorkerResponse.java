@@ -0,0 +1,51 @@
+package com.whj.generate.biz.Infrastructure.coverage.worker;
+
+import java.io.Serializable;
+
+/**
+ * 工作进程评估结果：覆盖行位集与目标方法抛出的异常信息
+ *
+ * @author whj
+ * @date 2026-10-18 下午5:20
+ */
+public final class WorkerResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 覆盖行位集
+     */
+    private final long[] coveredLines;
+    /**
+     * 目标方法异常信息
+     */
+    private final String errorMsg;
+    /**
+     * 工作进程自身的失败原因（无法加载目标方法等），为 null 表示评估成功
+     */
+    private final String failure;
+
+    private WorkerResponse(long[] coveredLines, String errorMsg, String failure) {
+        this.coveredLines = coveredLines;
+        this.errorMsg = errorMsg;
+        this.failure = failure;
+    }
+
+    public static WorkerResponse success(long[] coveredLines, String errorMsg) {
+        return new WorkerResponse(coveredLines, errorMsg, null);
+    }
+
+    public static WorkerResponse failure(String failure) {
+        return new WorkerResponse(null, null, failure);
+    }
+
+    public long[] getCoveredLines() {
+        return coveredLines;
+    }
+
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+}
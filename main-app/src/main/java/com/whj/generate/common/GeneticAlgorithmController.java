@@ -2,7 +2,6 @@ package com.whj.generate.common;
 
 
 import com.whj.generate.biz.Infrastructure.SessionManager;
-import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
 import com.whj.generate.common.config.GeneticAlgorithmConfig;
 import com.whj.generate.common.convert.ChromosomeConvertor;
 import com.whj.generate.common.dto.CoveredDTO;
@@ -17,6 +16,8 @@ import com.whj.generate.core.domain.Nature;
 import com.whj.generate.core.domain.Population;
 import com.whj.generate.core.service.CoverageService;
 import com.whj.generate.core.service.GeneticAlgorithmService;
+import com.whj.generate.utill.MinHash;
+import com.whj.generate.utill.SimilarityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -31,20 +32,21 @@ import java.util.*;
 @Controller
 @RequestMapping("/api/genetic-algorithm")
 public class GeneticAlgorithmController {
+    /**
+     * 可选的种群相似度计算模式
+     */
+    private static final Set<String> SIMILARITY_MODES = Set.of(SimilarityUtils.NAME, MinHash.NAME);
     /**
      * 封装 GeneticAlgorithmService
      */
     private final GeneticAlgorithmService geneticAlgorithmService;
-    private final ChromosomeCoverageTracker coverageTracker;
     private final SessionManager sessionManager;
     private final CoverageService coverageService;
 
     @Autowired
     public GeneticAlgorithmController(GeneticAlgorithmService geneticAlgorithmService,
-                                      ChromosomeCoverageTracker coverageTracker,
                                       SessionManager sessionManager, CoverageService coverageService) {
         this.geneticAlgorithmService = geneticAlgorithmService;
-        this.coverageTracker = coverageTracker;
         this.sessionManager = sessionManager;
         this.coverageService = coverageService;
     }
@@ -57,19 +59,32 @@ public class GeneticAlgorithmController {
     public InitResponse init(@RequestBody AlgorithmRequest request) throws ClassNotFoundException {
         System.out.println("POST init 被调用");
 
-            initTracker();
             Class<?> targetClass = Class.forName("com.whj.generate.whjtest." + request.getClassName());
             Nature nature = new Nature();
+            if (request.getParallelEvaluation() != null) {
+                nature.setParallelEvaluation(request.getParallelEvaluation());
+            }
+            if (request.getCoverageBackend() != null) {
+                if (!coverageService.getCoverageBackendNames().contains(request.getCoverageBackend())) {
+                    throw new IllegalArgumentException("无效的覆盖率后端: " + request.getCoverageBackend()
+                            + "，可选: " + coverageService.getCoverageBackendNames());
+                }
+                nature.setCoverageBackend(request.getCoverageBackend());
+            }
+            if (request.getSimilarityMode() != null) {
+                if (!SIMILARITY_MODES.contains(request.getSimilarityMode())) {
+                    throw new IllegalArgumentException("无效的相似度计算模式: " + request.getSimilarityMode());
+                }
+                nature.setSimilarityMode(request.getSimilarityMode());
+            }
             // 初始化环境
             Population initialPop = geneticAlgorithmService.initEnvironment(nature, targetClass, request.getMethodName());
             String sessionId = sessionManager.createSession(nature);
 
-            // 构造响应
-            return ChromosomeConvertor.getInitResponse(sessionId, initialPop);
-    }
-
-    private void initTracker() {
-        coverageTracker.clear();
+            // 构造响应：穷举会话一次即得全部可达覆盖
+            boolean finished = nature.isExhaustive()
+                    || initialPop.getCurrentCoverage() >= GeneticAlgorithmConfig.TARGET_COVERAGE;
+            return ChromosomeConvertor.getInitResponse(sessionId, initialPop, finished);
     }
 
     /**
@@ -85,6 +100,9 @@ public class GeneticAlgorithmController {
         if (genIndex < 0) {
             throw new IllegalArgumentException("无效的参数");
         }
+        if (nature.isExhaustive()) {
+            throw new IllegalArgumentException("穷举会话已完成，无需进化");
+        }
         // 执行一次进化
         Population nextPop = geneticAlgorithmService.evolvePopulation(nature, genIndex);
         boolean finished = isPopulationFinished(nextPop, genIndex);
@@ -108,7 +126,7 @@ public class GeneticAlgorithmController {
             throw new IllegalArgumentException("无效的参数");
         }
         Population pop = nature.getPopulationList().get(generationIndex);
-        Map<Chromosome, Integer> chromosomeSequenceMap = coverageService.getChromosomeSequenceMap();
+        Map<Chromosome, Integer> chromosomeSequenceMap = coverageService.getChromosomeSequenceMap(nature);
         return ChromosomeConvertor.getPopulationResponse(sessionId, generationIndex, pop, chromosomeSequenceMap);
     }
 
@@ -123,14 +141,15 @@ public class GeneticAlgorithmController {
 
         List<Population> populations = nature.getPopulationList();
 
-        return buildVisualResult(populations, coverageTracker);
+        return buildVisualResult(nature, populations);
     }
 
     @GetMapping("/covered")
     @ResponseBody
-    public CoveredDTO getCovered(@RequestParam Integer chromosomeSeq) {
+    public CoveredDTO getCovered(@RequestParam String sessionId, @RequestParam Integer chromosomeSeq) {
         System.out.println("GET /api/java-structure/covered 被调用");
-        Covered covered = coverageService.getCovered(chromosomeSeq);
+        Nature nature = checkAndGetNature(sessionId);
+        Covered covered = coverageService.getCovered(nature, chromosomeSeq);
         CoveredDTO coveredDTO = new CoveredDTO();
         coveredDTO.setChromosomeId(covered.getChromosomeId());
         coveredDTO.setGenes(covered.getGenes());
@@ -139,12 +158,24 @@ public class GeneticAlgorithmController {
         return coveredDTO;
     }
 
+    /**
+     * 结束会话，释放会话覆盖数据与插桩副本
+     */
+    @DeleteMapping("/session")
+    @ResponseBody
+    public void closeSession(@RequestParam String sessionId) {
+        System.out.println("DELETE session 被调用");
+        Nature nature = sessionManager.removeSession(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException("无效的sessionId"));
+        coverageService.releaseSession(nature);
+    }
+
     private Nature checkAndGetNature(String sessionId) {
         return sessionManager.getNature(sessionId)
                 .orElseThrow(() -> new IllegalArgumentException("无效的sessionId"));
     }
 
-    private static List<Map<String, Object>> buildVisualResult(List<Population> populations, ChromosomeCoverageTracker tracker) {
+    private List<Map<String, Object>> buildVisualResult(Nature nature, List<Population> populations) {
         List<Map<String, Object>> result = new ArrayList<>();
         double previousCoverage = 0.0;
 
@@ -155,13 +186,15 @@ public class GeneticAlgorithmController {
             double deltaCoverage = coverage - previousCoverage;
             previousCoverage = coverage;
 
-            double similarity = tracker.getSimilarityAtGeneration(pop);
+            double similarity = coverageService.getSimilarityAtGeneration(nature, pop);
+            double nearestSimilarity = coverageService.getNearestSimilarityAtGeneration(nature, pop);
 
             Map<String, Object> dataPoint = new HashMap<>();
             dataPoint.put("generation", i);
             dataPoint.put("coverage", coverage);
             dataPoint.put("deltaCoverage", deltaCoverage);
             dataPoint.put("similarity", similarity);
+            dataPoint.put("nearestSimilarity", nearestSimilarity);
 
             result.add(dataPoint);
         }
@@ -1,5 +1,7 @@
 package com.whj.generate.common.config;
 
+import com.whj.generate.utill.SimilarityUtils;
+
 /**
  * @author whj
  * @description: 进化算法配置信息
@@ -38,5 +40,25 @@ public class GeneticAlgorithmConfig {
      * 基础适应度权重
      */
     public static double BASE_WEIGHT = 0.5;
+    /**
+     * 是否并行评估染色体（每个线程使用独立的插桩副本）
+     */
+    public static boolean PARALLEL_EVALUATION = true;
+    /**
+     * 覆盖率后端：jacoco、line-hit（轻量行命中插桩）或 worker（子 JVM 工作进程池）
+     */
+    public static String COVERAGE_BACKEND = "jacoco";
+    /**
+     * 种群相似度计算模式：exact（位集两两精确计算）或 minhash（MinHash 签名近似估计）
+     */
+    public static String SIMILARITY_MODE = SimilarityUtils.NAME;
+    /**
+     * minhash 模式下单对相似度估计的误差上界
+     */
+    public static double MINHASH_ERROR_BOUND = 0.1;
+    /**
+     * 基因组合空间不超过该值时改为穷举：初始种群即全部基因向量，一次评估得到可达的全部覆盖，不再进化
+     */
+    public static int EXHAUSTIVE_SPACE_LIMIT = 4096;
 
 }
@@ -6,6 +6,7 @@ import com.whj.generate.common.req.InitResponse;
 import com.whj.generate.common.response.EvolveResponse;
 import com.whj.generate.common.response.PopulationResponse;
 import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.domain.GenerationOutcome;
 import com.whj.generate.core.domain.Population;
 
 import java.util.Arrays;
@@ -23,22 +24,26 @@ public class ChromosomeConvertor {
             Comparator.comparingDouble((ChromosomeDTO c) -> -c.getFitness())
                     .thenComparingDouble(c -> -c.getCoveragePercent());
 
-    public static InitResponse getInitResponse(String sessionId, Population initialPop) {
+    public static InitResponse getInitResponse(String sessionId, Population initialPop, boolean finished) {
         return new InitResponse(
                 sessionId,
                 0,
                 initialPop.getCurrentCoverage(),
-                initialPop.getChromosomeSet().size()
+                initialPop.getChromosomeSet().size(),
+                finished
         );
     }
 
     public static EvolveResponse getEvolveResponse(EvolveRequest request, int genIndex, Population nextPop, boolean finished) {
+        final GenerationOutcome outcome = nextPop.getGenerationOutcome();
         return new EvolveResponse(
                 request.getSessionId(),
                 genIndex + 1,
                 nextPop.getCurrentCoverage(),
-                nextPop.getChromosomeSet().size(),
-                finished
+                outcome.getAchievedSize(),
+                finished,
+                outcome.getStatus().name(),
+                outcome.getTargetSize()
         );
     }
 
@@ -8,6 +8,18 @@ public class AlgorithmRequest {
 
     private String className;
     private String methodName;
+    /**
+     * 是否并行评估染色体，为空时使用全局配置
+     */
+    private Boolean parallelEvaluation;
+    /**
+     * 覆盖率后端（jacoco / line-hit / worker），为空时使用全局配置
+     */
+    private String coverageBackend;
+    /**
+     * 种群相似度计算模式（exact / minhash），为空时使用全局配置
+     */
+    private String similarityMode;
 
     public String getClassName() {
         return className;
@@ -24,4 +36,28 @@ public class AlgorithmRequest {
     public void setMethodName(String methodName) {
         this.methodName = methodName;
     }
-}
\ No newline at end of file
+
+    public Boolean getParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public void setParallelEvaluation(Boolean parallelEvaluation) {
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
+    public String getCoverageBackend() {
+        return coverageBackend;
+    }
+
+    public void setCoverageBackend(String coverageBackend) {
+        this.coverageBackend = coverageBackend;
+    }
+
+    public String getSimilarityMode() {
+        return similarityMode;
+    }
+
+    public void setSimilarityMode(String similarityMode) {
+        this.similarityMode = similarityMode;
+    }
+}
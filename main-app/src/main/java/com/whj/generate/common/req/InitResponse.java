@@ -9,12 +9,14 @@ public class InitResponse {
     private int generationIndex;
     private double coverage;
     private int populationSize;
+    private boolean finished;
 
-    public InitResponse(String sessionId, int generationIndex, double coverage, int populationSize) {
+    public InitResponse(String sessionId, int generationIndex, double coverage, int populationSize, boolean finished) {
         this.sessionId = sessionId;
         this.generationIndex = generationIndex;
         this.coverage = coverage;
         this.populationSize = populationSize;
+        this.finished = finished;
     }
 
     public String getSessionId() {
@@ -48,5 +50,13 @@ public class InitResponse {
     public void setPopulationSize(int populationSize) {
         this.populationSize = populationSize;
     }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
 // getters omitted
 }
\ No newline at end of file
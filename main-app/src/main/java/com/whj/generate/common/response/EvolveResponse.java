@@ -11,14 +11,25 @@ public class EvolveResponse {
     private double coverage;
     private int populationSize;
     private boolean finished;
+    /**
+     * 子代生成结束原因：COMPLETE、SATURATED（可达空间已饱和）或 ATTEMPT_LIMIT（达到尝试上限）
+     */
+    private String outcome;
+    /**
+     * 目标种群规模，populationSize 低于该值说明子代生成提前结束
+     */
+    private int targetPopulationSize;
     private String msg;
 
-    public EvolveResponse(String sessionId, int nextGeneration, double coverage, int populationSize, boolean finished) {
+    public EvolveResponse(String sessionId, int nextGeneration, double coverage, int populationSize, boolean finished,
+                          String outcome, int targetPopulationSize) {
         this.sessionId = sessionId;
         this.nextGeneration = nextGeneration;
         this.coverage = coverage;
         this.populationSize = populationSize;
         this.finished = finished;
+        this.outcome = outcome;
+        this.targetPopulationSize = targetPopulationSize;
     }
     public EvolveResponse(String msg){
         this.msg = msg;
@@ -64,6 +75,22 @@ public class EvolveResponse {
         this.finished = finished;
     }
 
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public int getTargetPopulationSize() {
+        return targetPopulationSize;
+    }
+
+    public void setTargetPopulationSize(int targetPopulationSize) {
+        this.targetPopulationSize = targetPopulationSize;
+    }
+
     public String getMsg() {
         return msg;
     }
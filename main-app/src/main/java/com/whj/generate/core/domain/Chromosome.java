@@ -11,9 +11,17 @@ import java.util.Objects;
  */
 public class Chromosome extends ChromosomeBase {
     /**
-     * 基因
+     * 基因下标：第 i 位为第 i 个参数的基因在基因表中的下标
      */
-    private final Object[] genes;
+    private final int[] geneIndexes;
+    /**
+     * 基因表，同一基因池的染色体共享同一实例
+     */
+    private final Object[][] geneTable;
+    /**
+     * 基因下标的哈希值（构造时计算）
+     */
+    private final int hash;
 
     /**
      * 覆盖率
@@ -29,21 +37,49 @@ public class Chromosome extends ChromosomeBase {
     private String errorMsg;
 
     /**
+     * 以基因表下标构建染色体
+     *
      * @param targetClass
      * @param method
-     * @param genes
+     * @param geneTable   基因表，见 {@link GenePool#getGeneTable()}
+     * @param geneIndexes 基因下标，由染色体持有，调用方不得再修改
      */
-
-    public Chromosome(Class<?> targetClass, Method method, Object[] genes) {
+    public Chromosome(Class<?> targetClass, Method method, Object[][] geneTable, int[] geneIndexes) {
         super(targetClass, method);
         Objects.requireNonNull(method, "Method cannot be null");
-        this.genes = Arrays.copyOf(genes, genes.length); // 防御性拷贝
+        if (geneTable.length != geneIndexes.length) {
+            throw new IllegalArgumentException("基因下标与基因表长度不一致");
+        }
+        this.geneTable = geneTable;
+        this.geneIndexes = geneIndexes;
+        this.hash = Arrays.hashCode(geneIndexes);
+    }
+
+    /**
+     * 以基因值构建染色体（不属于任何基因池，如工作进程内按请求重建的染色体）
+     *
+     * @param targetClass
+     * @param method
+     * @param genes
+     */
+    public Chromosome(Class<?> targetClass, Method method, Object[] genes) {
+        this(targetClass, method, singletonTable(genes), new int[genes.length]);
     }
 
 
     public Chromosome(Class<?> targetClass, Method method) {
-        super(targetClass, method);
-        genes = new Object[method.getParameterCount()];
+        this(targetClass, method, new Object[method.getParameterCount()]);
+    }
+
+    /**
+     * 每个参数只有一个基因的基因表
+     */
+    private static Object[][] singletonTable(Object[] genes) {
+        final Object[][] table = new Object[genes.length][];
+        for (int i = 0; i < genes.length; i++) {
+            table[i] = new Object[]{genes[i]};
+        }
+        return table;
     }
 
     public double getCoveragePercent() {
@@ -54,8 +90,29 @@ public class Chromosome extends ChromosomeBase {
         this.coveragePercent = coveragePercent;
     }
 
+    /**
+     * 按基因表还原基因值（每次返回新数组）
+     */
     public Object[] getGenes() {
-        return Arrays.copyOf(genes, genes.length);
+        final Object[] genes = new Object[geneIndexes.length];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = geneTable[i][geneIndexes[i]];
+        }
+        return genes;
+    }
+
+    /**
+     * 基因位数
+     */
+    public int geneCount() {
+        return geneIndexes.length;
+    }
+
+    /**
+     * 第 pos 位基因在基因表中的下标
+     */
+    public int geneIndexAt(int pos) {
+        return geneIndexes[pos];
     }
 
     public double getFitness() {
@@ -74,25 +131,19 @@ public class Chromosome extends ChromosomeBase {
         this.errorMsg = errorMsg;
     }
 
+    /**
+     * 同一基因表且基因下标逐位相同才相等
+     */
     @Override
     public boolean equals(Object object) {
         if (this == object) return true;
         if (object == null || getClass() != object.getClass()) return false;
         Chromosome that = (Chromosome) object;
-        return that.hashCode() == this.hashCode();
+        return hash == that.hash && geneTable == that.geneTable && Arrays.equals(geneIndexes, that.geneIndexes);
     }
 
-    /**
-     * 重写hashCode方法，保证两个染色体对象相等时，hashCode也相等
-     */
     @Override
     public int hashCode() {
-        int hash = 1;
-        for (Object gene : genes) {
-            hash = hash * 31 + (gene == null ? 0 : gene.hashCode());
-        }
         return hash;
     }
-
-
 }
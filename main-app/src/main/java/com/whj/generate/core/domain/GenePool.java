@@ -1,11 +1,16 @@
 package com.whj.generate.core.domain;
 
 
+import com.whj.generate.utill.GeneConvertUtil;
+
 import java.io.Serial;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -27,6 +32,10 @@ public class GenePool extends BasePool {
      * 参数索引
      */
     private final List<Integer> parameterIndexes = new CopyOnWriteArrayList<>();
+    /**
+     * 基因表：按参数顺序排列的各参数基因，染色体以下标引用其中的基因；加载基因后重建
+     */
+    private transient volatile Object[][] geneTable;
 
     /**
      * 加载指定参数索引的基因列表
@@ -37,6 +46,7 @@ public class GenePool extends BasePool {
         }
 
         parameterGenes.put(paramIndex, genes.clone());
+        geneTable = null;
 
         if (!parameterIndexes.contains(paramIndex)) {
             parameterIndexes.add(paramIndex);
@@ -44,6 +54,32 @@ public class GenePool extends BasePool {
         }
     }
 
+    /**
+     * 按参数类型加载基因：加载时即转换为参数类型，无法转换的基因被剔除，
+     * 转换后重复的基因只保留一个；全部剔除时使用参数类型默认值。
+     *
+     * @param paramIndex 参数索引
+     * @param paramType  参数类型
+     * @param genes      原始基因
+     * @return 被剔除的原始基因
+     */
+    public synchronized List<Object> loadGenes(int paramIndex, Class<?> paramType, Object[] genes) {
+        Set<Object> typedGenes = new LinkedHashSet<>();
+        List<Object> rejected = new ArrayList<>();
+        for (Object gene : genes == null ? new Object[0] : genes) {
+            try {
+                typedGenes.add(GeneConvertUtil.convert(paramType, gene));
+            } catch (IllegalArgumentException e) {
+                rejected.add(gene);
+            }
+        }
+        if (typedGenes.isEmpty()) {
+            typedGenes.add(GeneConvertUtil.defaultValue(paramType));
+        }
+        loadGenes(paramIndex, typedGenes.toArray());
+        return rejected;
+    }
+
     /**
      * 获取参数位的基因种类数
      *
@@ -53,6 +89,58 @@ public class GenePool extends BasePool {
         return Collections.unmodifiableList(parameterIndexes);
     }
 
+    /**
+     * 获取基因表，第 i 行为第 i 个参数的全部基因（调用方不得修改）
+     * <p>
+     * 同一基因池返回同一个表实例，染色体据此判断基因下标是否可比。
+     */
+    public Object[][] getGeneTable() {
+        Object[][] table = geneTable;
+        if (table == null) {
+            synchronized (this) {
+                table = geneTable;
+                if (table == null) {
+                    table = new Object[parameterIndexes.size()][];
+                    for (int i = 0; i < table.length; i++) {
+                        table[i] = parameterGenes.get(parameterIndexes.get(i));
+                    }
+                    geneTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 基因组合空间大小：各参数基因种类数之积，超出 long 范围时为 {@link Long#MAX_VALUE}
+     */
+    public long getCombinationCount() {
+        long count = 1;
+        for (Object[] genes : getGeneTable()) {
+            if (count > Long.MAX_VALUE / genes.length) {
+                return Long.MAX_VALUE;
+            }
+            count *= genes.length;
+        }
+        return count;
+    }
+
+    /**
+     * 混合进制解码：将组合序号映射为各参数的基因下标，第 0 个参数为最低位
+     *
+     * @param index 组合序号 [0, {@link #getCombinationCount()})
+     * @return 基因下标
+     */
+    public int[] decodeCombination(long index) {
+        final Object[][] table = getGeneTable();
+        final int[] geneIndexes = new int[table.length];
+        for (int i = 0; i < table.length; i++) {
+            geneIndexes[i] = (int) (index % table[i].length);
+            index /= table[i].length;
+        }
+        return geneIndexes;
+    }
+
     public int getParameterCount() {
         return parameterIndexes.size();
     }
@@ -0,0 +1,55 @@
+package com.whj.generate.core.domain;
+
+/**
+ * 子代生成结果：结束原因与达到的种群规模
+ *
+ * @author whj
+ * @date 2026-10-18 下午10:50
+ */
+public final class GenerationOutcome {
+    /**
+     * 结束原因
+     */
+    public enum Status {
+        /**
+         * 达到目标规模
+         */
+        COMPLETE,
+        /**
+         * 连续多轮未产生新染色体，可达空间已饱和
+         */
+        SATURATED,
+        /**
+         * 达到尝试上限
+         */
+        ATTEMPT_LIMIT
+    }
+
+    private final Status status;
+    /**
+     * 目标种群规模
+     */
+    private final int targetSize;
+    /**
+     * 达到的种群规模
+     */
+    private final int achievedSize;
+
+    public GenerationOutcome(Status status, int targetSize, int achievedSize) {
+        this.status = status;
+        this.targetSize = targetSize;
+        this.achievedSize = achievedSize;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    public int getAchievedSize() {
+        return achievedSize;
+    }
+}
@@ -0,0 +1,163 @@
+package com.whj.generate.core.domain;
+
+import java.util.function.Function;
+
+/**
+ * 一代种群的列式存储（不可变）：基因下标、覆盖率、覆盖行位集、适应度按列连续存放，第 i 行对应第 i 个染色体
+ * <p>
+ * 种群评估完成（封存）时构建一次，打分、父代选择、交叉等热点循环按行号访问连续数组，不再逐个染色体追指针。
+ * 打分阶段读取封存后的列，得到适应度后经 {@link #withFitness} 生成带适应度列的存储，其余列共享不复制。
+ *
+ * @author whj
+ * @date 2026-10-18 下午10:20
+ */
+public final class GenerationStore {
+    /**
+     * 行号 -> 染色体
+     */
+    private final Chromosome[] chromosomes;
+    /**
+     * 每行基因位数
+     */
+    private final int geneCount;
+    /**
+     * 基因下标矩阵，第 i 行位于 [i * geneCount, (i + 1) * geneCount)
+     */
+    private final int[] genes;
+    /**
+     * 覆盖率
+     */
+    private final long[] coveragePercent;
+    /**
+     * 每行覆盖行位集字数
+     */
+    private final int words;
+    /**
+     * 覆盖行位集矩阵，第 i 行位于 [i * words, (i + 1) * words)
+     */
+    private final long[] coveredLines;
+    /**
+     * 适应度，打分前为 0
+     */
+    private final double[] fitness;
+
+    /**
+     * 封存一代种群
+     *
+     * @param chromosomes  染色体
+     * @param coveredLines 染色体 -> 覆盖行位集
+     */
+    public GenerationStore(Chromosome[] chromosomes, Function<Chromosome, long[]> coveredLines) {
+        final int size = chromosomes.length;
+        this.chromosomes = chromosomes.clone();
+        this.geneCount = size == 0 ? 0 : chromosomes[0].geneCount();
+        this.genes = new int[size * geneCount];
+        this.coveragePercent = new long[size];
+        this.fitness = new double[size];
+        final long[][] rows = new long[size][];
+        int maxWords = 0;
+        for (int i = 0; i < size; i++) {
+            final Chromosome chromosome = chromosomes[i];
+            for (int pos = 0; pos < geneCount; pos++) {
+                genes[i * geneCount + pos] = chromosome.geneIndexAt(pos);
+            }
+            coveragePercent[i] = (long) chromosome.getCoveragePercent();
+            rows[i] = coveredLines.apply(chromosome);
+            maxWords = Math.max(maxWords, rows[i].length);
+        }
+        this.words = maxWords;
+        this.coveredLines = new long[size * words];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(rows[i], 0, this.coveredLines, i * words, rows[i].length);
+        }
+    }
+
+    private GenerationStore(GenerationStore columns, double[] fitness) {
+        this.chromosomes = columns.chromosomes;
+        this.geneCount = columns.geneCount;
+        this.genes = columns.genes;
+        this.coveragePercent = columns.coveragePercent;
+        this.words = columns.words;
+        this.coveredLines = columns.coveredLines;
+        this.fitness = fitness;
+    }
+
+    /**
+     * 仅含基因、覆盖率与适应度列（覆盖行为空），用于未经覆盖评估的种群，适应度取染色体当前值
+     */
+    public static GenerationStore of(Chromosome[] chromosomes) {
+        final double[] fitness = new double[chromosomes.length];
+        for (int i = 0; i < chromosomes.length; i++) {
+            fitness[i] = chromosomes[i].getFitness();
+        }
+        return new GenerationStore(chromosomes, chromosome -> new long[0]).withFitness(fitness);
+    }
+
+    /**
+     * 以打分结果作为适应度列，其余列与当前存储共享
+     *
+     * @param fitness 与行号一致的适应度
+     */
+    public GenerationStore withFitness(double[] fitness) {
+        if (fitness.length != size()) {
+            throw new IllegalArgumentException("染色体与适应度数量不一致");
+        }
+        return new GenerationStore(this, fitness.clone());
+    }
+
+    public int size() {
+        return chromosomes.length;
+    }
+
+    public Chromosome chromosome(int row) {
+        return chromosomes[row];
+    }
+
+    public int geneCount() {
+        return geneCount;
+    }
+
+    /**
+     * 复制第 row 行的基因下标
+     */
+    public int[] copyGenes(int row) {
+        final int[] dest = new int[geneCount];
+        System.arraycopy(genes, row * geneCount, dest, 0, geneCount);
+        return dest;
+    }
+
+    /**
+     * 将第 row 行从 fromPos 起的基因下标复制到 dest 的相同位置
+     */
+    public void copyGenes(int row, int fromPos, int[] dest) {
+        System.arraycopy(genes, row * geneCount + fromPos, dest, fromPos, geneCount - fromPos);
+    }
+
+    public long coveragePercent(int row) {
+        return coveragePercent[row];
+    }
+
+    /**
+     * 第 row 行覆盖行位集与 mask 交集的大小
+     */
+    public int andCardinality(int row, long[] mask) {
+        final int offset = row * words;
+        final int common = Math.min(words, mask.length);
+        int count = 0;
+        for (int i = 0; i < common; i++) {
+            count += Long.bitCount(coveredLines[offset + i] & mask[i]);
+        }
+        return count;
+    }
+
+    public double fitness(int row) {
+        return fitness[row];
+    }
+
+    /**
+     * 适应度列（内部数组，只读）
+     */
+    double[] fitnessColumn() {
+        return fitness;
+    }
+}
@@ -1,5 +1,9 @@
 package com.whj.generate.core.domain;
 
+import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
+import com.whj.generate.common.config.GeneticAlgorithmConfig;
+import com.whj.generate.utill.MinHash;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,6 +17,26 @@ public class Nature {
      * 历史种群
      */
     private List<Population> populationList;
+    /**
+     * 是否并行评估染色体
+     */
+    private boolean parallelEvaluation = GeneticAlgorithmConfig.PARALLEL_EVALUATION;
+    /**
+     * 覆盖率后端名称
+     */
+    private String coverageBackend = GeneticAlgorithmConfig.COVERAGE_BACKEND;
+    /**
+     * 种群相似度计算模式
+     */
+    private String similarityMode = GeneticAlgorithmConfig.SIMILARITY_MODE;
+    /**
+     * 是否为穷举会话（初始种群已包含全部基因向量）
+     */
+    private boolean exhaustive;
+    /**
+     * 会话覆盖追踪器
+     */
+    private final ChromosomeCoverageTracker coverageTracker = new ChromosomeCoverageTracker();
 
     public Nature() {
         this.populationList = new ArrayList<>();
@@ -33,4 +57,47 @@ public class Nature {
     public boolean hasPopulation() {
         return populationList.isEmpty();
     }
+
+    public boolean isParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public void setParallelEvaluation(boolean parallelEvaluation) {
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
+    public String getCoverageBackend() {
+        return coverageBackend;
+    }
+
+    public void setCoverageBackend(String coverageBackend) {
+        this.coverageBackend = coverageBackend;
+    }
+
+    public String getSimilarityMode() {
+        return similarityMode;
+    }
+
+    public void setSimilarityMode(String similarityMode) {
+        this.similarityMode = similarityMode;
+    }
+
+    /**
+     * 是否使用 MinHash 近似计算种群相似度
+     */
+    public boolean isApproximateSimilarity() {
+        return MinHash.NAME.equals(similarityMode);
+    }
+
+    public boolean isExhaustive() {
+        return exhaustive;
+    }
+
+    public void setExhaustive(boolean exhaustive) {
+        this.exhaustive = exhaustive;
+    }
+
+    public ChromosomeCoverageTracker getCoverageTracker() {
+        return coverageTracker;
+    }
 }
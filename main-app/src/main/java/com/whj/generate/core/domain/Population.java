@@ -1,13 +1,11 @@
 package com.whj.generate.core.domain;
 
-import com.google.common.collect.Lists;
-import com.whj.generate.core.infrastructure.strategy.CombinationStrategy;
-
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Population extends PopulationBase {
     /**
@@ -19,14 +17,19 @@ public class Population extends PopulationBase {
      */
     private final GenePool genePool;
 
-    // 缓存优化
-    private transient double[] cumulativeFitness;
-    private transient double cachedTotalFitness;
+    /**
+     * 评估快照：每代评估后构建一次
+     */
+    private transient volatile PopulationSnapshot snapshot;
 
     /**
      * 当前覆盖率
      */
     private long currentCoverage;
+    /**
+     * 子代生成结果，初始种群为 null
+     */
+    private GenerationOutcome generationOutcome;
 
 
     public Population(Class<?> targetClass, Method targetMethod, GenePool genePool) {
@@ -52,6 +55,14 @@ public class Population extends PopulationBase {
         this.currentCoverage = currentCoverage;
     }
 
+    public GenerationOutcome getGenerationOutcome() {
+        return generationOutcome;
+    }
+
+    public void setGenerationOutcome(GenerationOutcome generationOutcome) {
+        this.generationOutcome = generationOutcome;
+    }
+
 
     /**
      * 如果不实用synchronized，则会出现线程不安全的情况
@@ -80,31 +91,39 @@ public class Population extends PopulationBase {
      * @return
      */
     public Chromosome initChromosome() {
-        Method method = super.getMethod();
-        Object[] chromosomeGenes = new Object[1];
-        return new Chromosome(super.getTargetClass(), method, chromosomeGenes);
+        Object[][] geneTable = genePool.getGeneTable();
+        int[] geneIndexes = new int[geneTable.length];
+        for (int i = 0; i < geneIndexes.length; i++) {
+            geneIndexes[i] = ThreadLocalRandom.current().nextInt(geneTable[i].length);
+        }
+        return new Chromosome(super.getTargetClass(), super.getMethod(), geneTable, geneIndexes);
     }
 
     /**
      * 染色体适应度和覆盖率更新
      */
     public void updateFitnessCache() {
-        int size = chromosomeSet.size();
-        this.cumulativeFitness = new double[size];
-        this.cachedTotalFitness = 0;
-
-        for (int i = 0; i < size; i++) {
-            this.cachedTotalFitness += Lists.newArrayList(chromosomeSet).get(i).getFitness() + 1;
-            this.cumulativeFitness[i] = this.cachedTotalFitness;
-        }
+        updateFitnessCache(GenerationStore.of(chromosomeSet.toArray(new Chromosome[0])));
     }
 
-    // 获取方法
-    public double[] getCumulativeFitness() {
-        return cumulativeFitness;
+    /**
+     * 以打分阶段的结果更新适应度快照
+     *
+     * @param store 本代封存且带适应度列的列式存储
+     */
+    public void updateFitnessCache(GenerationStore store) {
+        this.snapshot = new PopulationSnapshot(store);
     }
 
-    public double getCachedTotalFitness() {
-        return cachedTotalFitness;
+    /**
+     * 获取评估快照，未评估时按染色体当前适应度构建
+     */
+    public PopulationSnapshot getSnapshot() {
+        PopulationSnapshot current = snapshot;
+        if (current == null) {
+            updateFitnessCache();
+            current = snapshot;
+        }
+        return current;
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.whj.generate.core.domain;
+
+import com.whj.generate.utill.AliasTable;
+import com.whj.generate.utill.SelectUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 种群评估快照（不可变）：一代带适应度列的列式存储，以及按适应度轮盘抽样的别名表
+ * <p>
+ * 每代评估完成后构建一次，父代选择、精英选择都按行号访问，不再遍历或复制染色体集合。
+ *
+ * @author whj
+ * @date 2026-10-18 下午9:40
+ */
+public final class PopulationSnapshot {
+    private final GenerationStore store;
+    /**
+     * 轮盘别名表，权重为适应度 + 1，保证零适应度个体仍可被选中
+     */
+    private final AliasTable rouletteTable;
+
+    /**
+     * @param store 一代带适应度列的列式存储
+     */
+    public PopulationSnapshot(GenerationStore store) {
+        this.store = store;
+        if (store.size() == 0) {
+            this.rouletteTable = null;
+            return;
+        }
+        final double[] weights = new double[store.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = store.fitness(i) + 1;
+        }
+        this.rouletteTable = new AliasTable(weights);
+    }
+
+    public GenerationStore getStore() {
+        return store;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public Chromosome get(int index) {
+        return store.chromosome(index);
+    }
+
+    /**
+     * 按适应度轮盘抽取一个下标，O(1)
+     */
+    public int pickIndex(Random random) {
+        if (rouletteTable == null) {
+            throw new IllegalStateException("种群为空");
+        }
+        return rouletteTable.sample(random);
+    }
+
+    /**
+     * 适应度最高的 k 个染色体，按适应度降序
+     */
+    public List<Chromosome> top(int k) {
+        final int[] indexes = SelectUtils.topK(store.fitnessColumn(), k);
+        final List<Chromosome> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(store.chromosome(index));
+        }
+        return result;
+    }
+}
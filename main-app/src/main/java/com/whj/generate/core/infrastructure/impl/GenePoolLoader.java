@@ -4,6 +4,8 @@ package com.whj.generate.core.infrastructure.impl;
 import com.whj.generate.core.domain.GenePool;
 import com.whj.generate.core.infrastructure.ParamThresholdExtractor;
 import com.whj.generate.core.infrastructure.PoolLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +21,7 @@ import java.util.Set;
  */
 @Component
 public class GenePoolLoader implements PoolLoader<GenePool> {
+    private static final Logger logger = LoggerFactory.getLogger(GenePoolLoader.class);
 
     private final ParamThresholdExtractor thresholdExtractor;
     @Autowired
@@ -34,13 +37,16 @@ public class GenePoolLoader implements PoolLoader<GenePool> {
 
         GenePool genePool = new GenePool();
 
-        //根据参数名，将基因位加载入基因池
+        Class<?>[] paramTypes = method.getParameterTypes();
+
+        //根据参数名，将基因位按参数类型转换后加载入基因池
         for(String param : paramsList){
             Object[] genes = geneticMap.get(param).toArray();
-            if (genes.length == 0) {
-                genes=new Object[]{null};
+            List<Object> rejected = genePool.loadGenes(paramIndex, paramTypes[paramIndex], genes);
+            if (!rejected.isEmpty()) {
+                logger.warn("参数 {} 的基因无法转换为 {}，已剔除: {}", param, paramTypes[paramIndex].getSimpleName(), rejected);
             }
-            genePool.loadGenes(paramIndex++, genes);
+            paramIndex++;
         }
         return genePool;
     }
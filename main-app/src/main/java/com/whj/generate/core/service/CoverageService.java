@@ -28,24 +28,53 @@ public interface CoverageService {
 
     /**
      * 获取某一代未覆盖行
+     * @param nature
      * @param population
      * @return
      */
-    Set<Integer> getPopulationUncovered(Population population);
+    Set<Integer> getPopulationUncovered(Nature nature, Population population);
 
     /**
      * 获取染色体覆盖行
      *
+     * @param nature
      * @param chromosome
      * @return
      */
-    Covered getCovered(Integer chromosome);
+    Covered getCovered(Nature nature, Integer chromosome);
     /**
      * 根据id查询染色体
      */
-    Chromosome getChromosomeById(Integer chromosomeId);
+    Chromosome getChromosomeById(Nature nature, Integer chromosomeId);
     /**
      * 根据染色体查ID
      */
-    Map<Chromosome, Integer>  getChromosomeSequenceMap();
+    Map<Chromosome, Integer>  getChromosomeSequenceMap(Nature nature);
+
+    /**
+     * 获取种群两两覆盖相似度均值
+     * @param nature
+     * @param population
+     * @return
+     */
+    double getSimilarityAtGeneration(Nature nature, Population population);
+    /**
+     * 获取种群平均最近邻相似度
+     * @param nature
+     * @param population
+     * @return
+     */
+    double getNearestSimilarityAtGeneration(Nature nature, Population population);
+
+    /**
+     * 获取可选的覆盖率后端名称
+     * @return
+     */
+    Set<String> getCoverageBackendNames();
+
+    /**
+     * 结束会话：清空会话覆盖追踪器，并释放覆盖率后端的插桩副本
+     * @param nature
+     */
+    void releaseSession(Nature nature);
 }
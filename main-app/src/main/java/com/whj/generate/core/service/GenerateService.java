@@ -14,9 +14,11 @@ public interface GenerateService {
      * 创建种群
      * @param clazz
      * @param method
+     * @param genePool       基因池
+     * @param populationSize 种群大小，不超过基因组合空间大小；等于空间大小时即枚举全部基因向量
      * @return
      */
-    Population genertatePopulation(Class<?> clazz, Method method);
+    Population genertatePopulation(Class<?> clazz, Method method, GenePool genePool, int populationSize);
 
     // 种群规模计算
     int calculatePopulationSize(GenePool genePool, int count);
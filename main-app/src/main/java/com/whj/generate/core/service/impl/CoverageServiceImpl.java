@@ -1,21 +1,36 @@
 package com.whj.generate.core.service.impl;
 
-import com.whj.generate.biz.Infrastructure.JaCoCoCoverageAnalyzer;
 import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
+import com.whj.generate.biz.Infrastructure.cache.EvaluationResult;
+import com.whj.generate.biz.Infrastructure.cache.EvaluationResultCache;
+import com.whj.generate.biz.Infrastructure.coverage.CoverageBackend;
+import com.whj.generate.biz.Infrastructure.coverage.EvaluationAbortedException;
+import com.whj.generate.biz.Infrastructure.coverage.MethodLines;
 import com.whj.generate.common.service.JavaStructureService;
 import com.whj.generate.core.domain.Chromosome;
+import com.whj.generate.core.domain.GenerationStore;
 import com.whj.generate.core.domain.Covered;
 import com.whj.generate.core.domain.Nature;
 import com.whj.generate.core.domain.Population;
 import com.whj.generate.core.exception.ExceptionWrapper;
 import com.whj.generate.core.exception.GenerateErrorEnum;
+import com.whj.generate.core.exception.GenerateException;
 import com.whj.generate.core.service.CoverageService;
 import com.whj.generate.utill.SetUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author whj
@@ -23,14 +38,15 @@ import java.util.*;
  */
 @Service
 public class CoverageServiceImpl implements CoverageService {
+    private static final Logger logger = LoggerFactory.getLogger(CoverageServiceImpl.class);
     /**
-     * 覆盖分析
+     * 并行打分时每个任务负责的染色体数
      */
-    private final JaCoCoCoverageAnalyzer coverageAnalyzer;
+    private static final int SCORE_CHUNK_SIZE = 64;
     /**
-     * 业务数据统计-覆盖追踪
+     * 覆盖率后端：名称 -> 后端
      */
-    private final ChromosomeCoverageTracker coverageTracker;
+    private final Map<String, CoverageBackend> coverageBackends;
     /**
      * 适应度计算服务
      */
@@ -39,13 +55,30 @@ public class CoverageServiceImpl implements CoverageService {
      * java结构服务
      */
     private final JavaStructureService javaStructureService;
+    /**
+     * 遗传算法线程池
+     */
+    private final ForkJoinPool geneticThreadPool;
+    /**
+     * 跨会话评估结果缓存
+     */
+    private final EvaluationResultCache evaluationCache;
+    /**
+     * 目标方法 -> 评估过该方法的存活会话；插桩副本按目标方法跨会话共享，最后一个会话结束时才释放
+     */
+    private final Map<Method, Set<Nature>> methodSessions = new ConcurrentHashMap<>();
 
     @Autowired
-    public CoverageServiceImpl(JaCoCoCoverageAnalyzer coverageAnalyzer, ChromosomeCoverageTracker coverageTracker, FitnessCalculatorServiceImpl fitnessCalculator, JavaStructureService javaStructureService) {
-        this.coverageAnalyzer = coverageAnalyzer;
-        this.coverageTracker = coverageTracker;
+    public CoverageServiceImpl(List<CoverageBackend> coverageBackends,
+                               FitnessCalculatorServiceImpl fitnessCalculator, JavaStructureService javaStructureService,
+                               @Qualifier("geneticForkJoinPool") ForkJoinPool geneticThreadPool,
+                               EvaluationResultCache evaluationCache) {
+        this.coverageBackends = coverageBackends.stream()
+                .collect(Collectors.toMap(CoverageBackend::getName, Function.identity()));
         this.fitnessCalculator = fitnessCalculator;
         this.javaStructureService = javaStructureService;
+        this.geneticThreadPool = geneticThreadPool;
+        this.evaluationCache = evaluationCache;
     }
 
     @Override
@@ -56,7 +89,6 @@ public class CoverageServiceImpl implements CoverageService {
         // 遍历每个染色体，计算覆盖率并更新适应度
         Long totalCoverage = getTotalCoverage(nature, population);
         population.setCurrentCoverage(totalCoverage);
-        population.updateFitnessCache();
         nature.addPopulation(population);
     }
 
@@ -67,19 +99,19 @@ public class CoverageServiceImpl implements CoverageService {
             //获取上个种群
             int size = nature.getPopulationList().size();
             final Population lastPopulation = nature.getPopulationList().get(size - 1);
-            lastPopulationUnCovered = coverageTracker.getPopulationUnCoveredLines(lastPopulation);
+            lastPopulationUnCovered = nature.getCoverageTracker().getPopulationUnCoveredLines(lastPopulation);
         }
         return lastPopulationUnCovered;
     }
 
     @Override
-    public Set<Integer> getPopulationUncovered(Population population) {
-        return coverageTracker.getPopulationUnCoveredLines(population);
+    public Set<Integer> getPopulationUncovered(Nature nature, Population population) {
+        return nature.getCoverageTracker().getPopulationUnCoveredLines(population);
     }
 
     @Override
-    public Covered getCovered(Integer chromosomeSeq) {
-        //查询value为chromosomeSeq的Integer
+    public Covered getCovered(Nature nature, Integer chromosomeSeq) {
+        final ChromosomeCoverageTracker coverageTracker = nature.getCoverageTracker();
         Chromosome chromosome = coverageTracker.getChromosomeById(chromosomeSeq);
         Covered covered = new Covered();
         if(chromosome!=null){
@@ -102,39 +134,135 @@ public class CoverageServiceImpl implements CoverageService {
     }
 
     @Override
-    public Chromosome getChromosomeById(Integer chromosomeId) {
-        return coverageTracker.getChromosomeById(chromosomeId);
+    public Chromosome getChromosomeById(Nature nature, Integer chromosomeId) {
+        return nature.getCoverageTracker().getChromosomeById(chromosomeId);
+    }
+
+    @Override
+    public Map<Chromosome, Integer> getChromosomeSequenceMap(Nature nature) {
+        return nature.getCoverageTracker().getChromosomeSequenceMap();
+    }
+
+    @Override
+    public double getSimilarityAtGeneration(Nature nature, Population population) {
+        final ChromosomeCoverageTracker coverageTracker = nature.getCoverageTracker();
+        return nature.isApproximateSimilarity()
+                ? coverageTracker.getApproximateSimilarityAtGeneration(population)
+                : coverageTracker.getSimilarityAtGeneration(population, geneticThreadPool);
     }
 
     @Override
-    public Map<Chromosome, Integer> getChromosomeSequenceMap() {
-        return coverageTracker.getChromosomeSequenceMap();
+    public double getNearestSimilarityAtGeneration(Nature nature, Population population) {
+        final ChromosomeCoverageTracker coverageTracker = nature.getCoverageTracker();
+        return nature.isApproximateSimilarity()
+                ? coverageTracker.getApproximateNearestSimilarityAtGeneration(population)
+                : coverageTracker.getNearestSimilarityAtGeneration(population, geneticThreadPool);
     }
 
 
 
+    @Override
+    public Set<String> getCoverageBackendNames() {
+        return coverageBackends.values().stream()
+                .filter(CoverageBackend::isAvailable)
+                .map(CoverageBackend::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public void releaseSession(Nature nature) {
+        nature.getCoverageTracker().clear();
+        // 仍有其他会话评估同一目标方法时保留插桩副本
+        methodSessions.keySet().forEach(method -> methodSessions.computeIfPresent(method, (m, sessions) -> {
+            if (!sessions.remove(nature) || !sessions.isEmpty()) {
+                return sessions;
+            }
+            coverageBackends.values().forEach(backend -> backend.release(m));
+            return null;
+        }));
+    }
+
+    /**
+     * 登记会话正在评估的目标方法
+     */
+    private void registerSession(Nature nature, Method method) {
+        methodSessions.compute(method, (m, sessions) -> {
+            final Set<Nature> registered = sessions == null ? new HashSet<>() : sessions;
+            registered.add(nature);
+            return registered;
+        });
+    }
+
     /**
      * 处理单个染色体覆盖率数据
+     * <p>
+     * 会话内已有评估记录的染色体（如延续到下一代的精英）直接复用记录，跳过覆盖分析与行追踪
+     *
+     * @param coverageTracker 会话覆盖追踪器
+     * @param evaluated       本代并行阶段的评估结果
      */
-    public void processChromosome(Chromosome chromosome, List<byte[]> dataCollector) {
+    public void processChromosome(ChromosomeCoverageTracker coverageTracker, CoverageBackend backend,
+                                  Population population, Chromosome chromosome,
+                                  Map<Chromosome, EvaluationResult> evaluated) {
+        final Map<Chromosome, EvaluationResult> evaluationMap = coverageTracker.getChromosomeEvaluationMap();
+        EvaluationResult record = evaluationMap.get(chromosome);
+        if (record == null) {
+            record = Optional.ofNullable(evaluated.get(chromosome))
+                    .orElseGet(() -> evaluate(backend, chromosome, false));
+            final MethodLines methodLines = backend.getMethodLines(chromosome.getMethod());
+            // 记录覆盖行与染色体的映射关系
+            coverageTracker.processLineCoverage(methodLines.getStartLine(), methodLines.getEndLine(),
+                    record.getCoveredLines(), chromosome);
+            // 中止的评估不记录，染色体再次出现时重新评估
+            if (record.isAborted()) {
+                coverageTracker.recordAborted(chromosome);
+            } else {
+                evaluationMap.put(chromosome, record);
+            }
+        } else if (record.getErrorMsg() != null) {
+            chromosome.setErrorMsg(record.getErrorMsg());
+        }
+        coverageTracker.recordPopulationCoverage(population, record.getCoveredLines());
+        chromosome.setCoveragePercent(record.getCoveragePercent());
+    }
 
-        final byte[] coverageData = getOrCollectCoverageData(chromosome);
-        final double coverage = coverageAnalyzer.calculateCoveragePercentage(coverageData, chromosome);
-        chromosome.setCoveragePercent((long) coverage);
-        dataCollector.add(coverageData);
+    /**
+     * 评估染色体：优先使用跨会话缓存中相同基因向量的结果
+     * <p>
+     * 只缓存真实结果（含目标方法自身抛出的异常）；执行环境故障导致的中止记为异常输入但不缓存
+     */
+    private EvaluationResult evaluate(CoverageBackend backend, Chromosome chromosome, boolean concurrent) {
+        final String key = evaluationCache.keyOf(backend.getName(), chromosome);
+        final EvaluationResult cached = evaluationCache.get(key);
+        if (cached != null) {
+            if (cached.getErrorMsg() != null) {
+                chromosome.setErrorMsg(cached.getErrorMsg());
+            }
+            return cached;
+        }
+        final long[] coveredLines;
+        try {
+            coveredLines = backend.collectCoveredLines(chromosome, concurrent);
+        } catch (EvaluationAbortedException e) {
+            chromosome.setErrorMsg(e.getMessage());
+            return EvaluationResult.aborted(backend.getMethodLines(chromosome.getMethod()).newLineBitSet(), e.getMessage());
+        }
+        final long coverage = (long) backend.getMethodLines(chromosome.getMethod()).coveragePercent(coveredLines);
+        final EvaluationResult result = new EvaluationResult(coveredLines, coverage, chromosome.getErrorMsg());
+        evaluationCache.put(key, result);
+        return result;
     }
 
     /**
-     * 获取或收集染色体覆盖率数据
+     * 获取会话选择的覆盖率后端
      */
-    public byte[] getOrCollectCoverageData(Chromosome chromosome) {
-        Map<Chromosome, byte[]> chromosomeCoverageDataMap = coverageTracker.getChromosomeCoverageDataMap();
-        // naturemap中获取或计算覆盖率数据
-        return Optional.ofNullable(chromosomeCoverageDataMap)
-                .map(map -> map.computeIfAbsent(chromosome,
-                        k -> coverageAnalyzer.collectNewCoverageData(chromosome)))
-                .orElseGet(
-                        () -> coverageAnalyzer.collectNewCoverageData(chromosome));
+    private CoverageBackend getCoverageBackend(Nature nature) {
+        final CoverageBackend backend = coverageBackends.get(nature.getCoverageBackend());
+        if (backend == null || !backend.isAvailable()) {
+            throw new GenerateException(GenerateErrorEnum.GET_OVERRIDE_FAIL,
+                    "不可用的覆盖率后端: " + nature.getCoverageBackend() + "，可选: " + getCoverageBackendNames());
+        }
+        return backend;
     }
 
     /**
@@ -146,18 +274,103 @@ public class CoverageServiceImpl implements CoverageService {
      */
     private Long getTotalCoverage(Nature nature, Population population) {
         return ExceptionWrapper.process(() -> {
-            // 初始化覆盖率追踪器（线程安全）
-            final List<byte[]> coverageDataList = new ArrayList<>();
+            final long begin = System.nanoTime();
+            final CoverageBackend backend = getCoverageBackend(nature);
+            final ChromosomeCoverageTracker coverageTracker = nature.getCoverageTracker();
             // 获取每个染色体的覆盖率数据
             final Set<Chromosome> chromosomes = population.getChromosomeSet();
-            chromosomes.forEach(chromosome -> {
-                        // 处理单个染色体覆盖率数据
-                        processChromosome(chromosome, coverageDataList);
-                        fitnessCalculator.calculate(nature, population, chromosome);
-                    }
-            );
-            return coverageAnalyzer.calculateTotalCoverage(coverageDataList, chromosomes.iterator().next().getMethod());
+            if (chromosomes.isEmpty()) {
+                population.updateFitnessCache(GenerationStore.of(new Chromosome[0]));
+                return 0L;
+            }
+            final Method method = chromosomes.iterator().next().getMethod();
+            registerSession(nature, method);
+            final MethodLines methodLines = backend.getMethodLines(method);
+            // 并行执行阶段
+            final Map<Chromosome, EvaluationResult> evaluated = nature.isParallelEvaluation()
+                    ? collectCoverageDataParallel(coverageTracker, backend, chromosomes)
+                    : Map.of();
+            final long executed = System.nanoTime();
+            // 处理单个染色体覆盖率数据：全部评估、记录完成后再打分
+            chromosomes.forEach(chromosome -> processChromosome(coverageTracker, backend, population, chromosome, evaluated));
+            final long recorded = System.nanoTime();
+            // 封存本代列式存储；打分阶段：未覆盖行快照每代只取一次，打分与目标执行无关，按行分块并行
+            final GenerationStore store = new GenerationStore(chromosomes.toArray(new Chromosome[0]),
+                    coverageTracker::getChromosomeCoveredBits);
+            final long[] uncovered = coverageTracker.getUncoveredBits(nature, population);
+            population.updateFitnessCache(store.withFitness(scoreFitness(nature, store, uncovered)));
+            logger.debug("种群评估耗时[{}]: 执行 {} ms, 统计 {} ms, 打分 {} ms, 染色体数 {}", backend.getName(),
+                    (executed - begin) / 1_000_000, (recorded - executed) / 1_000_000,
+                    (System.nanoTime() - recorded) / 1_000_000, chromosomes.size());
+            // 种群覆盖行位集已随染色体评估增量合并
+            return (long) methodLines.coveragePercent(coverageTracker.getPopulationCoveredBits(population));
         }, GenerateErrorEnum.GET_OVERRIDE_FAIL, "种群覆盖率计算失败");
     }
 
+    /**
+     * 并行计算染色体适应度：按行块拆分到遗传算法线程池，每个任务只写入自己负责的行区间；
+     * 并行阶段不修改染色体，结束后再串行回写染色体的适应度字段（供展示使用）
+     *
+     * @param nature
+     * @param store     本代列式存储
+     * @param uncovered 本代未覆盖行快照
+     * @return 与 store 行号一致的适应度
+     */
+    private double[] scoreFitness(Nature nature, GenerationStore store, long[] uncovered) {
+        final double[] fitness = new double[store.size()];
+        final int chunks = (store.size() + SCORE_CHUNK_SIZE - 1) / SCORE_CHUNK_SIZE;
+        try {
+            geneticThreadPool.submit(() -> IntStream.range(0, chunks)
+                    .parallel()
+                    .forEach(chunk -> {
+                        final int to = Math.min(store.size(), (chunk + 1) * SCORE_CHUNK_SIZE);
+                        for (int i = chunk * SCORE_CHUNK_SIZE; i < to; i++) {
+                            fitness[i] = fitnessCalculator.calculate(nature, store, i, uncovered);
+                        }
+                    })
+            ).get();
+            for (int i = 0; i < fitness.length; i++) {
+                store.chromosome(i).setFitness((long) fitness[i]);
+            }
+            return fitness;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException(GenerateErrorEnum.GET_OVERRIDE_FAIL, "并行打分被中断", e);
+        } catch (ExecutionException e) {
+            throw new GenerateException(GenerateErrorEnum.GET_OVERRIDE_FAIL, "并行打分失败", e.getCause());
+        }
+    }
+
+    /**
+     * 并行执行会话内尚无评估记录的染色体
+     *
+     * @param coverageTracker
+     * @param backend
+     * @param chromosomes
+     * @return 本次评估结果
+     */
+    private Map<Chromosome, EvaluationResult> collectCoverageDataParallel(ChromosomeCoverageTracker coverageTracker,
+                                                                          CoverageBackend backend,
+                                                                          Set<Chromosome> chromosomes) {
+        final Map<Chromosome, EvaluationResult> evaluationMap = coverageTracker.getChromosomeEvaluationMap();
+        if (chromosomes.isEmpty() || !backend.supportsConcurrent(chromosomes.iterator().next().getMethod())) {
+            return Map.of();
+        }
+        final List<Chromosome> pending = chromosomes.stream()
+                .filter(chromosome -> !evaluationMap.containsKey(chromosome))
+                .toList();
+        final Map<Chromosome, EvaluationResult> evaluated = new ConcurrentHashMap<>();
+        try {
+            geneticThreadPool.submit(() -> pending.parallelStream()
+                    .forEach(chromosome -> evaluated.put(chromosome, evaluate(backend, chromosome, true)))
+            ).get();
+            return evaluated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException(GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "并行评估被中断", e);
+        } catch (ExecutionException e) {
+            throw new GenerateException(GenerateErrorEnum.COLLECT_COVERAGE_FAIL, "并行评估失败", e.getCause());
+        }
+    }
+
 }
@@ -1,16 +1,15 @@
 package com.whj.generate.core.service.impl;
 
 import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
-import com.whj.generate.core.domain.ChromosomeBase;
+import com.whj.generate.core.domain.GenerationStore;
 import com.whj.generate.core.domain.Chromosome;
 import com.whj.generate.core.domain.Nature;
-import com.whj.generate.core.domain.Population;
 import com.whj.generate.core.service.FitnessCalculatorService;
-import com.whj.generate.utill.SimilarityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.whj.generate.common.config.GeneticAlgorithmConfig.*;
 
@@ -21,75 +20,61 @@ import static com.whj.generate.common.config.GeneticAlgorithmConfig.*;
 @Service
 public class FitnessCalculatorServiceImpl implements FitnessCalculatorService {
     /**
-     * 覆盖追踪器
+     * 遗传算法线程池
      */
-    private final ChromosomeCoverageTracker coverageTracker;
+    private final ForkJoinPool geneticThreadPool;
 
     @Autowired
-    public FitnessCalculatorServiceImpl(ChromosomeCoverageTracker coverageTracker) {
-        this.coverageTracker = coverageTracker;
+    public FitnessCalculatorServiceImpl(@Qualifier("geneticForkJoinPool") ForkJoinPool geneticThreadPool) {
+        this.geneticThreadPool = geneticThreadPool;
     }
 
     /**
-     * 计算适应度并更新染色体适应度
+     * 按列式存储的第 row 行计算适应度，不修改染色体，可在并行阶段调用
      *
-     * @param
      * @param nature
-     * @param population
+     * @param store     本代列式存储
+     * @param row       行号
+     * @param uncovered 本代未覆盖行快照，见 {@link ChromosomeCoverageTracker#getUncoveredBits}
      * @return
      */
-    public double calculate(Nature nature, Population population, ChromosomeBase baseChromosome) {
-        if(baseChromosome instanceof Chromosome chromosome){
-            // 基础适应度（加入权重系数）
-            double baseFitness = chromosome.getCoveragePercent() * BASE_WEIGHT;
-
-            // 新行覆盖奖励：使用精确的未覆盖行集合
-            double noveltyReward = getNoveltyReward(nature, population, chromosome);
-
-            // 多样性惩罚：考虑与其他染色体的相似性
-            double similarityPenalty = calculateSimilarityPenalty(chromosome) * DIVERSITY_PENALTY;
-
-            // 最终适应度（确保非负）
-            double fitness = Math.max(baseFitness + noveltyReward - similarityPenalty, 0);
-            chromosome.setFitness((long) fitness);
-            return chromosome.getFitness();
-        }
-        return 0;
+    public double calculate(Nature nature, GenerationStore store, int row, long[] uncovered) {
+        return score(nature, store.chromosome(row), store.coveragePercent(row), store.andCardinality(row, uncovered));
     }
 
     /**
-     * 获取新行覆盖奖励
-     *
-     * @param nature
-     * @param population
-     * @param chromosome
-     * @return
+     * @param coveragePercent 覆盖率
+     * @param novelty         新覆盖行数
      */
-    private double getNoveltyReward(Nature nature, Population population, Chromosome chromosome) {
-        int novelty = coverageTracker.getNewCovered(nature, population, chromosome).size();
-        return novelty * 100.0 * NOVELTY_WEIGHT;
+    private double score(Nature nature, Chromosome chromosome, double coveragePercent, int novelty) {
+        // 基础适应度（加入权重系数）
+        double baseFitness = coveragePercent * BASE_WEIGHT;
+
+        // 新行覆盖奖励：使用精确的未覆盖行集合
+        double noveltyReward = novelty * 100.0 * NOVELTY_WEIGHT;
+
+        // 多样性惩罚：考虑与其他染色体的相似性
+        double similarityPenalty = calculateSimilarityPenalty(nature, chromosome) * DIVERSITY_PENALTY;
+
+        // 最终适应度（确保非负）
+        return Math.max(baseFitness + noveltyReward - similarityPenalty, 0);
     }
 
     /**
      * 计算相似性惩罚
      *
+     * @param nature
      * @param target
      * @return
      */
-    private double calculateSimilarityPenalty(Chromosome target) {
-        Set<Chromosome> coveringChromosomes = coverageTracker.getCoveringChromosomeSet(target);
-        if (coveringChromosomes.isEmpty()) {
-            return 0.0;
+    private double calculateSimilarityPenalty(Nature nature, Chromosome target) {
+        ChromosomeCoverageTracker coverageTracker = nature.getCoverageTracker();
+        if (nature.isApproximateSimilarity()) {
+            // 近似模式：按签名位计数估计，不枚举覆盖染色体
+            return coverageTracker.getApproximateSimilarity(target);
         }
-        Set<Integer> targetLines = coverageTracker.getChromosomeCovered(target);
-        return coveringChromosomes.parallelStream()
-                .filter(c -> !c.equals(target)) // 使用equals确保正确过滤
-                .mapToDouble(other -> {
-                    Set<Integer> otherLines = coverageTracker.getChromosomeCovered(other);
-                    return SimilarityUtils.jaccardSimilarity(targetLines, otherLines);
-                })
-                .average()
-                .orElse(0.0);
+        // 精确模式：与各覆盖等价类计算一次，按类内染色体数加权
+        return coverageTracker.getAverageSimilarity(target, geneticThreadPool);
     }
 
 }
\ No newline at end of file
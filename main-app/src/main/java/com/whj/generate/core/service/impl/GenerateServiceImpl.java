@@ -3,10 +3,8 @@ package com.whj.generate.core.service.impl;
 import com.whj.generate.core.domain.Chromosome;
 import com.whj.generate.core.domain.GenePool;
 import com.whj.generate.core.domain.Population;
-import com.whj.generate.core.infrastructure.strategy.CombinationStrategy;
-import com.whj.generate.core.infrastructure.strategy.StrategyFactory;
-import com.whj.generate.core.service.GenPoolService;
 import com.whj.generate.core.service.GenerateService;
+import com.whj.generate.utill.FeistelPermutation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +12,10 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
 
 /**
@@ -25,25 +24,20 @@ import java.util.stream.IntStream;
 @Service
 public class GenerateServiceImpl implements GenerateService {
     private static final Logger logger = LoggerFactory.getLogger(GenerateServiceImpl.class);
-    private static final int MAX_RETRIES = 5;
+    /**
+     * 并行生成时每个任务负责的序号数
+     */
+    private static final int SAMPLE_CHUNK_SIZE = 256;
 
-    private final GenPoolService genPoolService;
-    private final StrategyFactory strategyFactory;
     private final ForkJoinPool geneticThreadPool;
 
     /**
      * 构造函数注入依赖
      *
-     * @param genPoolService 基因池服务
-     * @param strategyFactory 策略工厂
      * @param geneticThreadPool 并行处理线程池
      */
     @Autowired
-    public GenerateServiceImpl(GenPoolService genPoolService,
-                               StrategyFactory strategyFactory,
-                               @Qualifier("geneticForkJoinPool") ForkJoinPool geneticThreadPool) {
-        this.genPoolService = genPoolService;
-        this.strategyFactory = strategyFactory;
+    public GenerateServiceImpl(@Qualifier("geneticForkJoinPool") ForkJoinPool geneticThreadPool) {
         this.geneticThreadPool = geneticThreadPool;
     }
 
@@ -52,35 +46,51 @@ public class GenerateServiceImpl implements GenerateService {
      *
      * @param clazz 类信息
      * @param method 方法信息
+     * @param genePool 基因池
+     * @param populationSize 种群大小
      * @return 生成的种群对象
      */
     @Override
-    public Population genertatePopulation(Class<?> clazz, Method method) {
+    public Population genertatePopulation(Class<?> clazz, Method method, GenePool genePool, int populationSize) {
         // 参数校验前置
         validateInput(clazz, method);
+        if (populationSize <= 0 || populationSize > genePool.getCombinationCount()) {
+            throw new IllegalArgumentException("种群大小须在 (0, 基因组合空间大小] 之间: " + populationSize);
+        }
 
-        GenePool genePool = genPoolService.initGenePool(clazz, method);
-        CombinationStrategy strategy = strategyFactory.createStrategy(genePool);
         Population population = new Population(clazz, method, genePool);
 
-        int populationSize = calculatePopulationSize(genePool,0);
-
-        generateChromosomesParallel(population, strategy, populationSize);
-        ensurePopulationSize(population, strategy, populationSize);
+        generateChromosomesParallel(population, populationSize);
 
         logger.info("已生成包含 {} 条染色体的种群", population.getChromosomeSet().size());
         return population;
     }
 
-    // 并行生成染色体
-    private void generateChromosomesParallel(Population population,
-                                             CombinationStrategy strategy,
-                                             int populationSize) {
+    /**
+     * 并行生成染色体：对组合空间做随机置换，取前 populationSize 个序号按混合进制解码为基因下标。
+     * 置换是双射，各任务按不相交的序号区间生成，染色体互不相同，无需去重重试。
+     *
+     * @param population     种群
+     * @param populationSize 种群大小（不超过组合空间大小）
+     */
+    private void generateChromosomesParallel(Population population, int populationSize) {
+        final GenePool genePool = population.getGenePool();
+        final Object[][] geneTable = genePool.getGeneTable();
+        final FeistelPermutation permutation = new FeistelPermutation(genePool.getCombinationCount(),
+                ThreadLocalRandom.current().nextLong());
+        final Chromosome[] chromosomes = new Chromosome[populationSize];
+        final int chunks = (populationSize + SAMPLE_CHUNK_SIZE - 1) / SAMPLE_CHUNK_SIZE;
         try {
             geneticThreadPool.submit(() ->
-                    IntStream.range(0, populationSize)
+                    IntStream.range(0, chunks)
                             .parallel()
-                            .forEach(i -> addChromosomeSafely(population, strategy, population.getTargetClass(), population.getMethod()))
+                            .forEach(chunk -> {
+                                final int to = Math.min(populationSize, (chunk + 1) * SAMPLE_CHUNK_SIZE);
+                                for (int i = chunk * SAMPLE_CHUNK_SIZE; i < to; i++) {
+                                    chromosomes[i] = new Chromosome(population.getTargetClass(), population.getMethod(),
+                                            geneTable, genePool.decodeCombination(permutation.apply(i)));
+                                }
+                            })
             ).get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -90,46 +100,7 @@ public class GenerateServiceImpl implements GenerateService {
             logger.error("生成种群失败: {}", e.getCause().getMessage());
             throw new PopulationGenerationException("生成执行失败", e.getCause());
         }
-    }
-
-    // 线程安全的染色体添加方法
-    private void addChromosomeSafely(Population population,
-                                     CombinationStrategy strategy,
-                                     Class<?> clazz,
-                                     Method method) {
-        try {
-            Object[] genes = strategy.generateCombination();
-            Chromosome chromosome = new Chromosome(clazz, method, genes);
-            population.addChromosome(chromosome);
-        } catch (Exception e) {
-            logger.warn("生成染色体失败: {}", e.getMessage());
-        }
-    }
-
-    // 确保种群规模的兜底逻辑
-    private void ensurePopulationSize(Population population,
-                                      CombinationStrategy strategy,
-                                      int targetSize) {
-        AtomicInteger retryCount = new AtomicInteger(0);
-
-        while (population.getChromosomeSet().size() < targetSize && retryCount.getAndIncrement() < MAX_RETRIES) {
-            Object[] genes = strategy.generateCombination();
-            Chromosome chromosome = new Chromosome(population.getTargetClass(), population.getMethod(), genes);
-
-            if (population.addChromosome(chromosome)) {
-                logger.debug("成功添加备份染色体");
-            }
-
-            if (retryCount.get() % 10 == 0) {
-                logger.warn("当前种群大小 {} < {}, 重试次数 {}",
-                        population.getChromosomeSet().size(), targetSize, retryCount.get());
-            }
-        }
-
-        if (population.getChromosomeSet().size() < targetSize) {
-            logger.error("经过 {} 次重试后仍未能达到目标种群大小", MAX_RETRIES);
-            throw new PopulationGenerationException("未能生成足够的染色体:"+population.getChromosomeSet().size());
-        }
+        population.addChromosomeSet(Arrays.asList(chromosomes));
     }
 
     // 种群规模计算
@@ -148,7 +119,8 @@ public class GenerateServiceImpl implements GenerateService {
         }
         double increasePercent =Math.pow(1.11,count);
         int size = (int) Math.pow(averageGenes, 0.25*increasePercent * paramCount);
-        return Math.max(1, Math.min(size, 10000));  // 限制合理范围
+        // 限制合理范围，且不超过基因组合空间大小（否则无法凑齐互不相同的染色体）
+        return (int) Math.max(1, Math.min(Math.min(size, 10000), genePool.getCombinationCount()));
     }
 
     // 输入参数校验
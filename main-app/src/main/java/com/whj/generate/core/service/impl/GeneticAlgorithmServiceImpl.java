@@ -1,12 +1,14 @@
 package com.whj.generate.core.service.impl;
 
 import com.google.common.collect.Lists;
-import com.whj.generate.biz.Infrastructure.cache.ChromosomeCoverageTracker;
 import com.whj.generate.common.config.GeneticAlgorithmConfig;
 import com.whj.generate.core.domain.Chromosome;
 import com.whj.generate.core.domain.GenePool;
+import com.whj.generate.core.domain.GenerationOutcome;
+import com.whj.generate.core.domain.GenerationStore;
 import com.whj.generate.core.domain.Nature;
 import com.whj.generate.core.domain.Population;
+import com.whj.generate.core.domain.PopulationSnapshot;
 import com.whj.generate.core.infrastructure.strategy.SelectionStrategy;
 import com.whj.generate.core.service.CoverageService;
 import com.whj.generate.core.service.GenPoolService;
@@ -20,8 +22,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,13 +38,19 @@ import java.util.stream.IntStream;
 @Service
 public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
     private static final Logger logger = LoggerFactory.getLogger(GeneticAlgorithmServiceImpl.class);
+    /**
+     * 连续多少轮未产生新染色体视为可达空间已饱和
+     */
+    private static final int MAX_STALE_ROUNDS = 8;
+    /**
+     * 每个目标名额最多尝试生成的子代数
+     */
+    private static final int MAX_ATTEMPTS_PER_SLOT = 50;
 
     // 基因加载器
     private final GenPoolService genPoolService;
     // 遗传算法线程池
     private final ForkJoinPool geneticThreadPool;
-    // 染色体覆盖率跟踪器
-    private final ChromosomeCoverageTracker coverageTracker;
     // 覆盖率服务
     private final CoverageService coverageService;
     // 选择策略
@@ -54,14 +60,12 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
     @Autowired
     public GeneticAlgorithmServiceImpl(
             GenPoolService genPoolService,
-            ChromosomeCoverageTracker coverageTracker,
             CoverageService coverageService,
             @Qualifier("geneticForkJoinPool") ForkJoinPool geneticThreadPool,
             @Qualifier("eliteDiverseStrategy") SelectionStrategy selectionStrategy,
             GenerateService generateService) {
         this.genPoolService = genPoolService;
         this.geneticThreadPool = geneticThreadPool;
-        this.coverageTracker = coverageTracker;
         this.coverageService = coverageService;
         this.selectionStrategy = selectionStrategy;
         this.generateService = generateService;
@@ -77,7 +81,19 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
     @Override
     public Population initEnvironment(Nature nature, Class<?> clazz, String methodName) {
         Method testMethod = ReflectionUtil.findMethod(clazz, methodName);
-        Population population = generateService.genertatePopulation(clazz, testMethod);
+        GenePool genePool = genPoolService.initGenePool(clazz, testMethod);
+        long combinationCount = genePool.getCombinationCount();
+        int populationSize;
+        if (combinationCount <= GeneticAlgorithmConfig.EXHAUSTIVE_SPACE_LIMIT) {
+            // 组合空间较小：并行穷举全部基因向量，一次评估即得可达的全部覆盖
+            nature.setExhaustive(true);
+            populationSize = (int) combinationCount;
+            logger.info("方法 {} 的基因组合空间为 {}，不超过穷举上限 {}，改为穷举", methodName,
+                    combinationCount, GeneticAlgorithmConfig.EXHAUSTIVE_SPACE_LIMIT);
+        } else {
+            populationSize = generateService.calculatePopulationSize(genePool, 0);
+        }
+        Population population = generateService.genertatePopulation(clazz, testMethod, genePool, populationSize);
         // 处理初始化种群数据
         populationDataHandle(nature, population);
         return population;
@@ -99,7 +115,7 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
         preserveElites(nature, population, newPopulation);
 
         // 进化生成新个体
-        evolveNewGeneration(population, newPopulation,count);
+        newPopulation.setGenerationOutcome(evolveNewGeneration(population, newPopulation, count));
 
         //计算种群适应度
         populationDataHandle(nature, newPopulation);
@@ -115,7 +131,7 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
     private void populationDataHandle(Nature nature, Population newPopulation) {
         coverageService.calculatePopulationCoverage(nature, newPopulation);
         Set<Chromosome> chromosomeSet = newPopulation.getChromosomeSet();
-        coverageTracker.buildChromosomeSequenceMap(chromosomeSet);
+        nature.getCoverageTracker().buildChromosomeSequenceMap(chromosomeSet);
     }
 
     /**
@@ -204,8 +220,9 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
      * @param srcPopulation  源种群
      * @param destPopulation 目标种群
      * @param count
+     * @return 结束原因与达到的种群规模
      */
-    private void evolveNewGeneration(Population srcPopulation, Population destPopulation, Integer count) {
+    private GenerationOutcome evolveNewGeneration(Population srcPopulation, Population destPopulation, Integer count) {
         final int targetSize = generateService.calculatePopulationSize(srcPopulation.getGenePool(),count);
         final GenePool genePool = srcPopulation.getGenePool();
 
@@ -213,9 +230,22 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
         final Set<Chromosome> destSet = ConcurrentHashMap.newKeySet();
         destSet.addAll(destPopulation.getChromosomeSet());
 
-        // 保证生成一定数量的染色体，保证多样性
+        // 保证生成一定数量的染色体，保证多样性；目标已按组合空间封顶，子代仍可能无法覆盖整个空间，故限制尝试次数
+        final long maxAttempts = (long) targetSize * MAX_ATTEMPTS_PER_SLOT;
+        long attempts = 0;
+        int staleRounds = 0;
+        GenerationOutcome.Status status = GenerationOutcome.Status.COMPLETE;
         while (destSet.size() < targetSize) {
-            int batchSize = targetSize - destSet.size();
+            if (staleRounds >= MAX_STALE_ROUNDS || attempts >= maxAttempts) {
+                status = staleRounds >= MAX_STALE_ROUNDS
+                        ? GenerationOutcome.Status.SATURATED : GenerationOutcome.Status.ATTEMPT_LIMIT;
+                logger.warn("第 {} 代子代生成提前结束（{}）: 种群 {} / 目标 {}, 组合空间 {}, 已尝试 {}",
+                        count, status, destSet.size(), targetSize, genePool.getCombinationCount(), attempts);
+                break;
+            }
+            int before = destSet.size();
+            int batchSize = targetSize - before;
+            attempts += batchSize;
 
             // 预生成随机参数
             final double[] crossoverRandoms = ThreadLocalRandom.current().doubles(batchSize).toArray();
@@ -232,9 +262,11 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
                     ))
                     .toList();
             destSet.addAll(childList);
+            staleRounds = destSet.size() > before ? 0 : staleRounds + 1;
         }
         // 最终更新种群
         destPopulation.addChromosomeSet(Lists.newArrayList(destSet));
+        return new GenerationOutcome(status, targetSize, destSet.size());
     }
 
     /**
@@ -248,42 +280,24 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
      */
     private Chromosome generateChild(Population population, GenePool genePool,
                                      double crossoverRandom, double mutationRandom) {
-        // 批量选择父代（缓存提升）
-        Chromosome[] parents = selectParentsBulk(population);
+        // 按行号从评估快照轮盘抽取父代，基因直接取自本代列式存储
+        final PopulationSnapshot snapshot = population.getSnapshot();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
         return performGeneticOperations(
-                parents[0],
-                parents[1],
+                snapshot.getStore(),
+                snapshot.pickIndex(random),
+                snapshot.pickIndex(random),
                 genePool,
                 crossoverRandom,
                 mutationRandom
         );
     }
 
-    // 批量选择父代（减少缓存访问次数）
-    private Chromosome[] selectParentsBulk(Population population) {
-        final double[] cumFitness = population.getCumulativeFitness();
-        final double totalFitness = population.getCachedTotalFitness();
-
-        // 单次阈值生成选择两个父代
-        double threshold1 = ThreadLocalRandom.current().nextDouble() * totalFitness;
-        double threshold2 = ThreadLocalRandom.current().nextDouble() * totalFitness;
-
-        int index1 = findIndex(threshold1, cumFitness);
-        int index2 = findIndex(threshold2, cumFitness);
-
-        Set<Chromosome> chromosomeSet = population.getChromosomeSet();
-        ArrayList<Chromosome> chromosomeLists = Lists.newArrayList(chromosomeSet);
-        return new Chromosome[]{
-                chromosomeLists.get(index1),
-                chromosomeLists.get(index2)
-        };
-    }
-
     // 遗传操作
-    private Chromosome performGeneticOperations(Chromosome p1, Chromosome p2,
+    private Chromosome performGeneticOperations(GenerationStore store, int p1, int p2,
                                                 GenePool pool, double crossoverRandom,
                                                 double mutationRandom) {
-        Object[] genes = Arrays.copyOf(p1.getGenes(), p1.getGenes().length);
+        int[] genes = store.copyGenes(p1);
 
         // 合并交叉与变异决策
         boolean doCrossover = crossoverRandom < GeneticAlgorithmConfig.CROSSOVER_RATE;
@@ -292,7 +306,7 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
         // 单点交叉优化
         if (doCrossover) {
             int crossPoint = ThreadLocalRandom.current().nextInt(genes.length);
-            System.arraycopy(p2.getGenes(), crossPoint, genes, crossPoint, genes.length - crossPoint);
+            store.copyGenes(p2, crossPoint, genes);
         }
 
         // 变异操作
@@ -300,7 +314,8 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
             mutateGene(genes, pool);
         }
 
-        return new Chromosome(p1.getTargetClass(), p1.getMethod(), genes);
+        Chromosome parent = store.chromosome(p1);
+        return new Chromosome(parent.getTargetClass(), parent.getMethod(), pool.getGeneTable(), genes);
     }
 
     /**
@@ -321,27 +336,12 @@ public class GeneticAlgorithmServiceImpl implements GeneticAlgorithmService {
     /**
      * 基因变异
      *
-     * @param genes 基因数组
+     * @param genes 基因下标数组
      * @param pool  基因库
      */
-    private void mutateGene(Object[] genes, GenePool pool) {
+    private void mutateGene(int[] genes, GenePool pool) {
         int mutatePos = ThreadLocalRandom.current().nextInt(genes.length);
-        Object[] availableGenes = pool.getParameterGenes().get(mutatePos);
-        genes[mutatePos] = availableGenes[ThreadLocalRandom.current().nextInt(availableGenes.length)];
-    }
-
-    /**
-     * 二分查找
-     *
-     * @param totalFitness
-     * @param cumulativeFitness
-     * @return
-     */
-    private static int findIndex(double totalFitness, double[] cumulativeFitness) {
-        final double threshold = ThreadLocalRandom.current().nextDouble() * totalFitness;
-        int index = Arrays.binarySearch(cumulativeFitness, threshold);
-        index = (index >= 0) ? index : Math.min(-index - 1, cumulativeFitness.length - 1);
-        return index;
+        genes[mutatePos] = ThreadLocalRandom.current().nextInt(pool.getGeneTable()[mutatePos].length);
     }
 
 }
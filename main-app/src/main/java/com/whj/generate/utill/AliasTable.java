@@ -0,0 +1,89 @@
+package com.whj.generate.utill;
+
+import java.util.Random;
+
+/**
+ * Vose 别名表：按非负权重做 O(1) 轮盘抽样，构建 O(n)，构建后不可变、可多线程共享
+ *
+ * @author whj
+ * @date 2026-10-18 下午9:40
+ */
+public final class AliasTable {
+    /**
+     * 列 i 保留自身的概率
+     */
+    private final double[] probability;
+    /**
+     * 列 i 的别名下标
+     */
+    private final int[] alias;
+
+    /**
+     * 构建别名表
+     *
+     * @param weights 非负权重，总和须大于 0
+     */
+    public AliasTable(double[] weights) {
+        final int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("权重不能为空");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("权重须非负: " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("权重总和须大于 0");
+        }
+        this.probability = new double[n];
+        this.alias = new int[n];
+        // 缩放到平均值 1，小于 1 的列由大于 1 的列补齐
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // 剩余列（含浮点误差）概率取 1
+        while (largeSize > 0) {
+            probability[large[--largeSize]] = 1.0;
+        }
+        while (smallSize > 0) {
+            probability[small[--smallSize]] = 1.0;
+        }
+    }
+
+    /**
+     * 按权重抽取一个下标
+     */
+    public int sample(Random random) {
+        final int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
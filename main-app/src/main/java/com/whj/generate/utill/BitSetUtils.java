@@ -0,0 +1,155 @@
+package com.whj.generate.utill;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * long[] 位集工具类，位序号 i 对应行号 startLine + i
+ *
+ * @author whj
+ * @date 2026-10-18 下午2:10
+ */
+public class BitSetUtils {
+    /**
+     * 每个 long 的位数（2 的幂）
+     */
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * 创建可容纳 nbits 位的位集
+     */
+    public static long[] newBitSet(int nbits) {
+        return new long[wordCount(nbits)];
+    }
+
+    /**
+     * nbits 位所需的 long 数
+     */
+    public static int wordCount(int nbits) {
+        return (Math.max(nbits, 0) + 63) >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * 置位
+     */
+    public static void set(long[] bits, int index) {
+        bits[index >>> ADDRESS_BITS_PER_WORD] |= 1L << index;
+    }
+
+    /**
+     * 判断某位是否置位
+     */
+    public static boolean get(long[] bits, int index) {
+        int word = index >>> ADDRESS_BITS_PER_WORD;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * 按位或，结果写入 dest
+     */
+    public static void or(long[] dest, long[] src) {
+        int words = Math.min(dest.length, src.length);
+        for (int i = 0; i < words; i++) {
+            dest[i] |= src[i];
+        }
+    }
+
+    /**
+     * 置位数
+     */
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 交集置位数
+     */
+    public static int andCardinality(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    /**
+     * 取反：返回前 nbits 位中未置位的位集
+     */
+    public static long[] complement(long[] bits, int nbits) {
+        final long[] result = newBitSet(nbits);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i < bits.length ? ~bits[i] : -1L;
+        }
+        if ((nbits & 63) != 0) {
+            result[result.length - 1] &= (1L << nbits) - 1;
+        }
+        return result;
+    }
+
+    /**
+     * 内容相等（忽略末尾全零字）
+     */
+    public static boolean equals(long[] a, long[] b) {
+        final int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        final long[] longer = a.length > b.length ? a : b;
+        for (int i = common; i < longer.length; i++) {
+            if (longer[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与 {@link #equals(long[], long[])} 一致的哈希值（忽略末尾全零字）
+     */
+    public static int hashCode(long[] bits) {
+        int last = bits.length - 1;
+        while (last >= 0 && bits[last] == 0) {
+            last--;
+        }
+        int hash = 1;
+        for (int i = 0; i <= last; i++) {
+            hash = 31 * hash + Long.hashCode(bits[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * 位集是否为空
+     */
+    public static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 位集转行号集合
+     */
+    public static Set<Integer> toLines(long[] bits, int startLine) {
+        Set<Integer> lines = new HashSet<>();
+        for (int word = 0; word < bits.length; word++) {
+            long value = bits[word];
+            while (value != 0) {
+                int bit = Long.numberOfTrailingZeros(value);
+                lines.add(startLine + (word << ADDRESS_BITS_PER_WORD) + bit);
+                value &= value - 1;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,90 @@
+package com.whj.generate.utill;
+
+import java.util.SplittableRandom;
+
+/**
+ * [0, size) 上的伪随机置换：平衡 Feistel 网络 + 循环行走
+ * <p>
+ * Feistel 网络在 2^(2h) 的定义域上是双射（h 取能覆盖 size 的最小半宽），结果落在 [size, 2^(2h)) 时继续加密直至落回区间内，
+ * 因此限制到 [0, size) 后仍是双射；定义域不超过 4·size，期望行走次数小于 4。
+ * 每个下标独立计算、不保存状态，不同线程按不相交的下标区间取值即可得到互不相同的结果。
+ *
+ * @author whj
+ * @date 2026-10-18 下午10:50
+ */
+public final class FeistelPermutation {
+    /**
+     * 轮数
+     */
+    private static final int ROUNDS = 4;
+
+    private final long size;
+    /**
+     * 半宽位数
+     */
+    private final int halfBits;
+    private final long halfMask;
+    /**
+     * 轮密钥
+     */
+    private final long[] keys = new long[ROUNDS];
+
+    /**
+     * @param size 置换区间大小，须大于 0
+     * @param seed 随机种子，决定具体置换
+     */
+    public FeistelPermutation(long size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("置换区间大小须大于 0: " + size);
+        }
+        this.size = size;
+        final int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = halfBits == 32 ? 0xFFFFFFFFL : (1L << halfBits) - 1;
+        final SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < ROUNDS; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 第 index 个置换结果
+     *
+     * @param index [0, size)
+     * @return [0, size)
+     */
+    public long apply(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("下标越界: " + index + " / " + size);
+        }
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value < 0 || value >= size);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (long key : keys) {
+            final long next = left ^ (mix(right ^ key) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * 64 位混淆（与 MinHash 相同的 murmur3 终结函数）
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,104 @@
+package com.whj.generate.utill;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.function.UnaryOperator;
+
+/**
+ * 基因类型转换工具类：把基因值转换为目标方法参数类型
+ * <p>
+ * int/Integer 参数按字符串解析；枚举参数先按常量名（大写）匹配，再按 getCode() 匹配；其余类型原样保留。
+ * 转换失败抛出 {@link IllegalArgumentException}。
+ *
+ * @author whj
+ * @date 2026-10-18 下午7:00
+ */
+public class GeneConvertUtil {
+    /**
+     * 枚举 code 方法名
+     */
+    private static final String ENUM_CODE_METHOD = "getCode";
+
+    /**
+     * 获取参数类型对应的转换器
+     *
+     * @param type 参数类型
+     * @return 转换器，入参非 null
+     */
+    public static UnaryOperator<Object> converterOf(Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return gene -> gene instanceof Integer ? gene : Integer.parseInt(gene.toString());
+        }
+        if (type.isEnum()) {
+            return gene -> type.isInstance(gene) ? gene : toEnum(type, gene.toString());
+        }
+        return UnaryOperator.identity();
+    }
+
+    /**
+     * 转换基因并校验与参数类型兼容
+     *
+     * @param type 参数类型
+     * @param gene 基因
+     * @return 转换后的基因
+     */
+    public static Object convert(Class<?> type, Object gene) {
+        Object converted = gene == null ? null : converterOf(type).apply(gene);
+        if (!isAssignable(type, converted)) {
+            throw new IllegalArgumentException("argument type mismatch");
+        }
+        return converted;
+    }
+
+    /**
+     * 与反射调用相同的实参兼容规则：引用类型可赋值，基本类型允许拆箱后放宽转换
+     */
+    public static boolean isAssignable(Class<?> type, Object value) {
+        if (!type.isPrimitive()) {
+            return value == null || type.isInstance(value);
+        }
+        if (value == null) {
+            return false;
+        }
+        Class<?> source = ReflectionUtil.unwrap(value.getClass());
+        if (source == null) {
+            return false;
+        }
+        return source == type || ReflectionUtil.isPrimitiveWidening(source, type);
+    }
+
+    /**
+     * 参数类型默认值：基本类型为零值，引用类型为 null
+     */
+    public static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    private static Object toEnum(Class<?> type, String value) {
+        Object[] constants = type.getEnumConstants();
+        for (Object constant : constants) {
+            if (((Enum<?>) constant).name().equals(value.toUpperCase())) {
+                return constant;
+            }
+        }
+        Method codeMethod = ReflectionUtil.findMethod(type, ENUM_CODE_METHOD);
+        if (codeMethod != null && codeMethod.getParameterCount() == 0) {
+            for (Object constant : constants) {
+                Object code = enumCode(codeMethod, constant);
+                if (code != null && code.toString().equalsIgnoreCase(value)) {
+                    return constant;
+                }
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value.toUpperCase());
+    }
+
+    private static Object enumCode(Method codeMethod, Object constant) {
+        try {
+            codeMethod.setAccessible(true);
+            return codeMethod.invoke(constant);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
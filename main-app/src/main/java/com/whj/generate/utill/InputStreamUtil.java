@@ -1,5 +1,6 @@
 package com.whj.generate.utill;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
 
@@ -16,4 +17,16 @@ public class InputStreamUtil {
         final String classResource = method.getDeclaringClass().getName().replace('.', '/') + ".class";
         return method.getDeclaringClass().getClassLoader().getResourceAsStream(classResource);
     }
+
+    /**
+     * 读取类原始字节码（未插桩）
+     */
+    public static byte[] getClassBytes(Method method) throws IOException {
+        try (InputStream classStream = getClassByteStream(method)) {
+            if (classStream == null) {
+                throw new IOException("找不到类字节码: " + method.getDeclaringClass().getName());
+            }
+            return classStream.readAllBytes();
+        }
+    }
 }
@@ -0,0 +1,250 @@
+package com.whj.generate.utill;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash 签名与 LSH 分带，用于近似估计覆盖行位集之间的 Jaccard 相似度
+ * <p>
+ * 签名第 i 位为位集中所有置位序号在第 i 个哈希函数下的最小值，两签名相同位的比例即 Jaccard 相似度的无偏估计，
+ * 标准差不超过 1/(2√k)。签名长度按误差上界 ε 取 k = ⌈1/ε²⌉（两倍标准差不超过 ε），并按每带行数向上取整。
+ * 空位集的签名全部为 {@link #EMPTY}，与任何签名的相似度均为 0，与精确计算的约定一致。
+ *
+ * @author whj
+ * @date 2026-10-18 下午8:10
+ */
+public final class MinHash {
+    /**
+     * 相似度计算模式名称
+     */
+    public static final String NAME = "minhash";
+    /**
+     * 空位集签名值
+     */
+    public static final int EMPTY = Integer.MAX_VALUE;
+    /**
+     * LSH 每带行数
+     */
+    private static final int ROWS_PER_BAND = 4;
+    /**
+     * 同一桶内每个签名最多比较的成员数，避免大桶退化为两两比较
+     */
+    private static final int MAX_BUCKET_PROBES = 32;
+    /**
+     * 哈希种子
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 哈希函数乘数（奇数）
+     */
+    private final long[] multipliers;
+    /**
+     * 哈希函数增量
+     */
+    private final long[] increments;
+
+    private MinHash(int numHashes) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        this.multipliers = new long[numHashes];
+        this.increments = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 按误差上界创建
+     *
+     * @param errorBound 单对相似度估计的误差上界 (0, 1)
+     */
+    public static MinHash forErrorBound(double errorBound) {
+        if (!(errorBound > 0 && errorBound < 1)) {
+            throw new IllegalArgumentException("MinHash 误差上界须在 (0, 1) 之间: " + errorBound);
+        }
+        final int numHashes = (int) Math.ceil(1 / (errorBound * errorBound));
+        return new MinHash((numHashes + ROWS_PER_BAND - 1) / ROWS_PER_BAND * ROWS_PER_BAND);
+    }
+
+    /**
+     * 签名长度
+     */
+    public int size() {
+        return multipliers.length;
+    }
+
+    /**
+     * 计算位集签名
+     */
+    public int[] signature(long[] bits) {
+        final int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, EMPTY);
+        for (int word = 0; word < bits.length; word++) {
+            long value = bits[word];
+            while (value != 0) {
+                final long index = (word << 6) + Long.numberOfTrailingZeros(value);
+                for (int i = 0; i < signature.length; i++) {
+                    final int hash = hash(index * multipliers[i] + increments[i]);
+                    if (hash < signature[i]) {
+                        signature[i] = hash;
+                    }
+                }
+                value &= value - 1;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 估计两签名的 Jaccard 相似度
+     */
+    public static double estimate(int[] a, int[] b) {
+        if (isEmpty(a) || isEmpty(b)) {
+            return 0.0;
+        }
+        int agree = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                agree++;
+            }
+        }
+        return (double) agree / a.length;
+    }
+
+    /**
+     * 空位集签名
+     */
+    public static boolean isEmpty(int[] signature) {
+        return signature.length == 0 || signature[0] == EMPTY;
+    }
+
+    /**
+     * 估计所有签名两两之间的平均相似度，O(n·k·log n)
+     * <p>
+     * 两两估计值之和等于各签名位上取值相同的签名对数之和除以 k，按位排序后统计相同取值的个数即可，无需枚举签名对。
+     */
+    public static double averageSimilarity(List<int[]> signatures) {
+        final int n = signatures.size();
+        if (n < 2) {
+            return 0.0;
+        }
+        final int k = signatures.get(0).length;
+        final int[] column = new int[n];
+        long agreePairs = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < n; j++) {
+                column[j] = signatures.get(j)[i];
+            }
+            Arrays.sort(column);
+            int run = 1;
+            for (int j = 1; j <= n; j++) {
+                if (j < n && column[j] == column[j - 1]) {
+                    run++;
+                    continue;
+                }
+                if (column[j - 1] != EMPTY) {
+                    agreePairs += (long) run * (run - 1) / 2;
+                }
+                run = 1;
+            }
+        }
+        final long pairs = (long) n * (n - 1) / 2;
+        return (double) agreePairs / k / pairs;
+    }
+
+    /**
+     * 估计每个签名与最近邻的相似度，并求平均
+     * <p>
+     * 完全相同的非空签名最近邻相似度为 1；其余签名按 LSH 分带，仅与同桶签名比较，桶内比较次数有上限。
+     * 未落入任何候选桶的签名最近邻相似度记为 0（低于分带阈值的近邻会被低估）。
+     */
+    public static double averageNearestSimilarity(List<int[]> signatures) {
+        final int n = signatures.size();
+        if (n < 2) {
+            return 0.0;
+        }
+        final double[] nearest = new double[n];
+        // 相同签名分组，每组只保留一个代表参与分带
+        final Map<SignatureKey, Integer> representatives = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            final int[] signature = signatures.get(i);
+            if (isEmpty(signature)) {
+                continue;
+            }
+            final Integer first = representatives.putIfAbsent(new SignatureKey(signature), i);
+            if (first != null) {
+                nearest[i] = 1.0;
+                nearest[first] = 1.0;
+            }
+        }
+        final int k = signatures.get(0).length;
+        final Map<Long, int[]> buckets = new HashMap<>();
+        for (int band = 0; band < k / ROWS_PER_BAND; band++) {
+            buckets.clear();
+            for (int i : representatives.values()) {
+                final int[] signature = signatures.get(i);
+                final long key = bandKey(signature, band * ROWS_PER_BAND);
+                final int[] bucket = buckets.computeIfAbsent(key, x -> new int[MAX_BUCKET_PROBES + 1]);
+                final int size = bucket[MAX_BUCKET_PROBES];
+                for (int j = 0; j < size; j++) {
+                    final double similarity = estimate(signature, signatures.get(bucket[j]));
+                    nearest[i] = Math.max(nearest[i], similarity);
+                    nearest[bucket[j]] = Math.max(nearest[bucket[j]], similarity);
+                }
+                if (size < MAX_BUCKET_PROBES) {
+                    bucket[size] = i;
+                    bucket[MAX_BUCKET_PROBES] = size + 1;
+                }
+            }
+        }
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            total += nearest[i];
+        }
+        return total / n;
+    }
+
+    /**
+     * 64 位混淆后取高 30 位，保证小于 EMPTY
+     */
+    private static int hash(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) ((value ^ (value >>> 33)) >>> 34);
+    }
+
+    private static long bandKey(int[] signature, int from) {
+        long key = 1;
+        for (int i = from; i < from + ROWS_PER_BAND; i++) {
+            key = key * 31 + signature[i];
+        }
+        return key;
+    }
+
+    /**
+     * 签名作为 Map 键
+     */
+    private static final class SignatureKey {
+        private final int[] signature;
+        private final int hash;
+
+        private SignatureKey(int[] signature) {
+            this.signature = signature;
+            this.hash = Arrays.hashCode(signature);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SignatureKey other && Arrays.equals(signature, other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.jar.JarEntry;
@@ -27,6 +29,20 @@ import java.util.jar.JarFile;
  * @date 2025-02-22 下午11:31
  */
 public class ReflectionUtil {
+    /**
+     * 基本类型放宽转换顺序（JLS 5.1.2），char 单独处理
+     */
+    private static final List<Class<?>> NUMERIC_WIDENING_ORDER =
+            List.of(byte.class, short.class, int.class, long.class, float.class, double.class);
+
+    /**
+     * 包装类型 -> 基本类型
+     */
+    private static final Map<Class<?>, Class<?>> WRAPPER_TO_PRIMITIVE = Map.of(
+            Boolean.class, boolean.class, Byte.class, byte.class, Character.class, char.class,
+            Short.class, short.class, Integer.class, int.class, Long.class, long.class,
+            Float.class, float.class, Double.class, double.class);
+
     /**
      * 反射调用方法
      *
@@ -99,6 +115,32 @@ public class ReflectionUtil {
     }
 
 
+    /**
+     * 包装类型转基本类型，非包装类型返回 null
+     *
+     * @param wrapper
+     * @return
+     */
+    public static Class<?> unwrap(Class<?> wrapper) {
+        return WRAPPER_TO_PRIMITIVE.get(wrapper);
+    }
+
+    /**
+     * 判断基本类型之间是否允许放宽转换
+     *
+     * @param from
+     * @param to
+     */
+    public static boolean isPrimitiveWidening(Class<?> from, Class<?> to) {
+        if (from == char.class) {
+            return NUMERIC_WIDENING_ORDER.indexOf(to) >= NUMERIC_WIDENING_ORDER.indexOf(int.class);
+        }
+        int fromIndex = NUMERIC_WIDENING_ORDER.indexOf(from);
+        int toIndex = NUMERIC_WIDENING_ORDER.indexOf(to);
+        return fromIndex >= 0 && toIndex > fromIndex;
+    }
+
+
     /**
      * 判断是否是final方法
      *
@@ -0,0 +1,110 @@
+package com.whj.generate.utill;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 部分选择工具类：按键值取前 k 大的下标，期望 O(n)，不对全部元素排序
+ *
+ * @author whj
+ * @date 2026-10-18 下午9:10
+ */
+public class SelectUtils {
+
+    /**
+     * 获取键值最大的 k 个下标，按键值降序排列
+     *
+     * @param keys 键值
+     * @param k    个数，超过元素数时取全部
+     * @return 下标数组
+     */
+    public static int[] topK(double[] keys, int k) {
+        final int n = keys.length;
+        k = Math.max(0, Math.min(k, n));
+        final int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        // 快速选择：把前 k 大的下标换到 [0, k)；三路划分，落在等于枢轴的区间内即可结束，键值大量相同时仍为线性
+        int left = 0;
+        int right = n - 1;
+        while (k > 0 && k < n && left < right) {
+            final double pivot = keys[indexes[left + ThreadLocalRandom.current().nextInt(right - left + 1)]];
+            // 划分后 [left, lt) 大于枢轴，[lt, gt] 等于枢轴，(gt, right] 小于枢轴
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                final double key = keys[indexes[i]];
+                if (key > pivot) {
+                    swap(indexes, lt++, i++);
+                } else if (key < pivot) {
+                    swap(indexes, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k - 1 < lt) {
+                right = lt - 1;
+            } else if (k - 1 > gt) {
+                left = gt + 1;
+            } else {
+                break;
+            }
+        }
+        final int[] top = new int[k];
+        System.arraycopy(indexes, 0, top, 0, k);
+        sortDescending(keys, top);
+        return top;
+    }
+
+    /**
+     * 按键值降序插入排序前 k 个下标（k 较大时改用堆排序）
+     */
+    private static void sortDescending(double[] keys, int[] indexes) {
+        if (indexes.length <= 32) {
+            for (int i = 1; i < indexes.length; i++) {
+                final int index = indexes[i];
+                int j = i - 1;
+                while (j >= 0 && keys[indexes[j]] < keys[index]) {
+                    indexes[j + 1] = indexes[j];
+                    j--;
+                }
+                indexes[j + 1] = index;
+            }
+            return;
+        }
+        // 小顶堆：依次把堆顶（最小值）换到末尾，得到降序
+        for (int i = indexes.length / 2 - 1; i >= 0; i--) {
+            siftDown(keys, indexes, i, indexes.length);
+        }
+        for (int end = indexes.length - 1; end > 0; end--) {
+            swap(indexes, 0, end);
+            siftDown(keys, indexes, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] keys, int[] indexes, int i, int size) {
+        while (true) {
+            int smallest = i;
+            final int left = 2 * i + 1;
+            final int right = left + 1;
+            if (left < size && keys[indexes[left]] < keys[indexes[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && keys[indexes[right]] < keys[indexes[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(indexes, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] indexes, int i, int j) {
+        final int tmp = indexes[i];
+        indexes[i] = indexes[j];
+        indexes[j] = tmp;
+    }
+}
@@ -2,55 +2,193 @@ package com.whj.generate.utill;
 
 
 
-import com.google.common.collect.Sets;
-
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
 /**
  * 相似度工具类，提供 Jaccard 相似度计算及种群平均相似度方法
+ * <p>
+ * 覆盖行以 long[] 位集表示（见 {@link BitSetUtils}），交集、并集大小按字做 AND/OR 后 {@link Long#bitCount} 求得，
+ * 两两计算过程不分配对象；计算量较大时按行块拆分到线程池并行。
+ * 种群方法的输入为覆盖等价类：互不相同的覆盖行位集及其染色体数，计算量只取决于不同覆盖路径的数量。
+ *
  * @author whj
  * @date 2025-05-15 下午5:23
  */
 public class SimilarityUtils {
+    /**
+     * 相似度计算模式名称
+     */
+    public static final String NAME = "exact";
+    /**
+     * 两两计算次数低于该值时串行计算
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    /**
+     * 并行计算时每个任务负责的行数
+     */
+    private static final int ROW_BLOCK_SIZE = 16;
 
     /**
-     * 计算两个集合的 Jaccard 相似度
+     * 计算两个覆盖行位集的 Jaccard 相似度
      *
-     * @param a 第一集合
-     * @param b 第二集合
-     * @return Jaccard 相似度 (0.0 ~ 1.0)
+     * @param a 第一位集
+     * @param b 第二位集
+     * @return Jaccard 相似度 (0.0 ~ 1.0)，两者皆空时为 0.0
      */
-    public static double jaccardSimilarity(Set<Integer> a, Set<Integer> b) {
-        if ((a == null || a.isEmpty()) && (b == null || b.isEmpty())) {
-            return 0.0;
+    public static double jaccardSimilarity(long[] a, long[] b) {
+        final int common = Math.min(a.length, b.length);
+        int intersection = 0;
+        int union = 0;
+        for (int i = 0; i < common; i++) {
+            intersection += Long.bitCount(a[i] & b[i]);
+            union += Long.bitCount(a[i] | b[i]);
+        }
+        final long[] longer = a.length > b.length ? a : b;
+        for (int i = common; i < longer.length; i++) {
+            union += Long.bitCount(longer[i]);
         }
-        int intersection = Sets.intersection(a, b).size();
-        int union = Sets.union(a, b).size();
         return union == 0 ? 0.0 : (double) intersection / union;
     }
 
+    /**
+     * 计算目标位集与各等价类相似度的加权和
+     *
+     * @param target 目标位集
+     * @param lines  各等价类覆盖行位集
+     * @param counts 各等价类染色体数
+     * @param pool   并行计算线程池，为 null 时串行
+     * @return Σ counts[i] · J(target, lines[i])
+     */
+    public static double weightedSimilaritySum(long[] target, List<long[]> lines, int[] counts, ForkJoinPool pool) {
+        final int n = lines.size();
+        final long[][] rows = lines.toArray(new long[0][]);
+        if (pool == null || n < PARALLEL_THRESHOLD) {
+            return rowSum(target, rows, counts, 0, n);
+        }
+        return pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, blockCount(n))
+                .parallel()
+                .mapToDouble(block -> rowSum(target, rows, counts, block * ROW_BLOCK_SIZE, Math.min(n, (block + 1) * ROW_BLOCK_SIZE)))
+                .sum()));
+    }
+
     /**
      * 计算种群中所有染色体两两之间的平均 Jaccard 相似度
+     * <p>
+     * 同一等价类内的染色体对相似度为 1（空覆盖为 0），不同等价类之间按染色体数之积加权。
      *
-     * @param linesByChromosome 一个数组或列表，按索引存放每个染色体的覆盖行集合
+     * @param lines  各等价类覆盖行位集（互不相同）
+     * @param counts 各等价类染色体数
+     * @param pool   并行计算线程池，为 null 时串行
      * @return 平均相似度 (0.0 ~ 1.0)
      */
-    public static double averagePopulationSimilarity(List<Set<Integer>> linesByChromosome) {
-        int n = linesByChromosome.size();
-        if (n < 2) {
+    public static double averagePopulationSimilarity(List<long[]> lines, int[] counts, ForkJoinPool pool) {
+        final long size = total(counts);
+        if (size < 2) {
             return 0.0;
         }
+        final int n = lines.size();
+        final long[][] rows = lines.toArray(new long[0][]);
+        final long pairs = size * (size - 1) / 2;
         double total = 0.0;
-        int count = 0;
         for (int i = 0; i < n; i++) {
-            Set<Integer> lines1 = linesByChromosome.get(i);
-            for (int j = i + 1; j < n; j++) {
-                Set<Integer> lines2 = linesByChromosome.get(j);
-                total += jaccardSimilarity(lines1, lines2);
-                count++;
+            if (!BitSetUtils.isEmpty(rows[i])) {
+                total += (double) counts[i] * (counts[i] - 1) / 2;
             }
         }
-        return count == 0 ? 0.0 : total / count;
+        if (pool == null || (long) n * (n - 1) / 2 < PARALLEL_THRESHOLD) {
+            return (total + pairSum(rows, counts, 0, n)) / pairs;
+        }
+        // 上三角各行计算量不同，按行块细分后由工作窃取均衡负载
+        total += pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, blockCount(n))
+                .parallel()
+                .mapToDouble(block -> pairSum(rows, counts, block * ROW_BLOCK_SIZE, Math.min(n, (block + 1) * ROW_BLOCK_SIZE)))
+                .sum()));
+        return total / pairs;
+    }
+
+    /**
+     * 计算每个染色体与最相似的其他染色体的相似度，并求平均
+     * <p>
+     * 染色体数不少于 2 的非空等价类，其成员的最近邻相似度为 1。
+     *
+     * @param lines  各等价类覆盖行位集（互不相同）
+     * @param counts 各等价类染色体数
+     * @param pool   并行计算线程池，为 null 时串行
+     * @return 平均最近邻相似度 (0.0 ~ 1.0)
+     */
+    public static double averageNearestSimilarity(List<long[]> lines, int[] counts, ForkJoinPool pool) {
+        final long size = total(counts);
+        if (size < 2) {
+            return 0.0;
+        }
+        final int n = lines.size();
+        final long[][] rows = lines.toArray(new long[0][]);
+        if (pool == null || (long) n * n < PARALLEL_THRESHOLD) {
+            return nearestSum(rows, counts, 0, n) / size;
+        }
+        final double total = pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, blockCount(n))
+                .parallel()
+                .mapToDouble(block -> nearestSum(rows, counts, block * ROW_BLOCK_SIZE, Math.min(n, (block + 1) * ROW_BLOCK_SIZE)))
+                .sum()));
+        return total / size;
+    }
+
+    /**
+     * 目标与 [from, to) 行的加权相似度之和
+     */
+    private static double rowSum(long[] target, long[][] rows, int[] counts, int from, int to) {
+        double total = 0.0;
+        for (int i = from; i < to; i++) {
+            total += counts[i] * jaccardSimilarity(target, rows[i]);
+        }
+        return total;
+    }
+
+    /**
+     * [from, to) 行与其后所有行的加权相似度之和
+     */
+    private static double pairSum(long[][] rows, int[] counts, int from, int to) {
+        double total = 0.0;
+        for (int i = from; i < to; i++) {
+            final long[] lines = rows[i];
+            double row = 0.0;
+            for (int j = i + 1; j < rows.length; j++) {
+                row += counts[j] * jaccardSimilarity(lines, rows[j]);
+            }
+            total += counts[i] * row;
+        }
+        return total;
+    }
+
+    /**
+     * [from, to) 各行最近邻相似度的加权和
+     */
+    private static double nearestSum(long[][] rows, int[] counts, int from, int to) {
+        double total = 0.0;
+        for (int i = from; i < to; i++) {
+            double nearest = counts[i] > 1 && !BitSetUtils.isEmpty(rows[i]) ? 1.0 : 0.0;
+            for (int j = 0; j < rows.length && nearest < 1.0; j++) {
+                if (j != i) {
+                    nearest = Math.max(nearest, jaccardSimilarity(rows[i], rows[j]));
+                }
+            }
+            total += counts[i] * nearest;
+        }
+        return total;
+    }
+
+    private static long total(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static int blockCount(int rows) {
+        return (rows + ROW_BLOCK_SIZE - 1) / ROW_BLOCK_SIZE;
     }
 }
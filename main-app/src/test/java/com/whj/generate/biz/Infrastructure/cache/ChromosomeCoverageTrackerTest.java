@@ -0,0 +1,63 @@
+package com.whj.generate.biz.Infrastructure.cache;
+
+import com.whj.generate.core.domain.Chromosome;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 评估中止后，多样性统计仍计入后续染色体
+ *
+ * @author whj
+ * @date 2026-10-19 上午10:20
+ */
+class ChromosomeCoverageTrackerTest {
+    private static final int START_LINE = 10;
+    private static final int END_LINE = 20;
+
+    public static int target(int value) {
+        return value;
+    }
+
+    @Test
+    void abortedEvaluationDoesNotStopDiversityCounting() throws Exception {
+        final ChromosomeCoverageTracker tracker = new ChromosomeCoverageTracker();
+        final Chromosome first = chromosome(1);
+        final Chromosome aborted = chromosome(2);
+        final Chromosome third = chromosome(3);
+        final Chromosome fourth = chromosome(4);
+
+        record(tracker, first, 0);
+        // 中止的评估已登记序号，但没有评估记录
+        tracker.processLineCoverage(START_LINE, END_LINE, new long[1], aborted);
+        tracker.recordAborted(aborted);
+        record(tracker, third, 1);
+        record(tracker, fourth, 1);
+
+        // 其余覆盖染色体为 first（相似度 0）与 third（相似度 1）
+        assertThat(tracker.getAverageSimilarity(fourth, ForkJoinPool.commonPool())).isCloseTo(0.5, within(1e-9));
+        assertThat(tracker.getApproximateSimilarity(fourth)).isCloseTo(0.5, within(0.1));
+
+        // 中止的染色体再次评估成功后补计
+        record(tracker, aborted, 1);
+        assertThat(tracker.getAverageSimilarity(fourth, ForkJoinPool.commonPool())).isCloseTo(2.0 / 3, within(1e-9));
+        assertThat(tracker.getApproximateSimilarity(fourth)).isCloseTo(2.0 / 3, within(0.1));
+    }
+
+    /**
+     * 记录染色体覆盖了第 bit 位对应的行
+     */
+    private static void record(ChromosomeCoverageTracker tracker, Chromosome chromosome, int bit) {
+        final long[] lines = {1L << bit};
+        tracker.processLineCoverage(START_LINE, END_LINE, lines, chromosome);
+        tracker.getChromosomeEvaluationMap().put(chromosome, new EvaluationResult(lines, 0L, null));
+    }
+
+    private static Chromosome chromosome(int gene) throws NoSuchMethodException {
+        return new Chromosome(ChromosomeCoverageTrackerTest.class,
+                ChromosomeCoverageTrackerTest.class.getDeclaredMethod("target", int.class), new Object[]{gene});
+    }
+}
@@ -0,0 +1,150 @@
+package com.whj.generate.biz.Infrastructure.coverage;
+
+import com.whj.generate.utill.BitSetUtils;
+import com.whj.generate.utill.InputStreamUtil;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 行命中插桩与 JaCoCo 行覆盖的一致性
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:10
+ */
+class LineHitInstrumenterTest {
+    /**
+     * 覆盖分支、循环、switch 与提前返回的输入
+     */
+    private static final int[] INPUTS = {-5, 0, 1, 2, 3, 7};
+
+    /**
+     * 样例目标类
+     */
+    public static class Sample {
+        public static int classify(int value) {
+            int result = 0;
+            if (value < 0) {
+                result = -1;
+            } else if (value == 0) {
+                return 0;
+            }
+            for (int i = 0; i < value; i++) {
+                result += i;
+            }
+            switch (value % 3) {
+                case 0:
+                    result *= 2;
+                    break;
+                case 1:
+                    result += 1;
+                    break;
+                default:
+                    result -= 1;
+            }
+            return result;
+        }
+    }
+
+    @Test
+    void coverableLinesMatchJaCoCo() throws Exception {
+        final Method method = sampleMethod();
+        final MethodLines lines = scanLines(method);
+        final IMethodCoverage jacoco = analyze(method, new ExecutionDataStore());
+
+        assertThat(lines.getStartLine()).isEqualTo(jacoco.getFirstLine());
+        assertThat(lines.getEndLine()).isEqualTo(jacoco.getLastLine());
+        assertThat(lines.getCoverableCount()).isEqualTo(jacocoLines(jacoco, false).size());
+    }
+
+    @Test
+    void coveredLinesMatchJaCoCo() throws Exception {
+        final Method method = sampleMethod();
+        final MethodLines lines = scanLines(method);
+        for (int input : INPUTS) {
+            assertThat(lineHitCovered(method, lines, input)).isEqualTo(jacocoCovered(method, input));
+        }
+    }
+
+    private static Method sampleMethod() throws NoSuchMethodException {
+        return Sample.class.getDeclaredMethod("classify", int.class);
+    }
+
+    private static MethodLines scanLines(Method method) throws Exception {
+        return LineHitInstrumenter.scanLines(InputStreamUtil.getClassBytes(method), method.getName(),
+                Type.getMethodDescriptor(method));
+    }
+
+    /**
+     * 在行命中插桩副本中执行一次，返回覆盖行号
+     */
+    private static Set<Integer> lineHitCovered(Method method, MethodLines lines, int input) throws Exception {
+        final byte[] instrumented = LineHitInstrumenter.instrument(InputStreamUtil.getClassBytes(method),
+                method.getName(), Type.getMethodDescriptor(method), lines.getStartLine());
+        final Method isolated = IsolatedTargetClassLoader.defineIsolatedMethod(method, instrumented);
+        final long[] hits = lines.newLineBitSet();
+        isolated.getDeclaringClass().getField(LineHitInstrumenter.HITS_FIELD).set(null, hits);
+        isolated.invoke(null, input);
+        return new TreeSet<>(BitSetUtils.toLines(hits, lines.getStartLine()));
+    }
+
+    /**
+     * 在 JaCoCo 插桩副本中执行一次，返回 JaCoCo 判定为已覆盖（含部分覆盖）的行号
+     */
+    private static Set<Integer> jacocoCovered(Method method, int input) throws Exception {
+        final IRuntime runtime = new LoggerRuntime();
+        final RuntimeData data = new RuntimeData();
+        runtime.startup(data);
+        final ExecutionDataStore executionData = new ExecutionDataStore();
+        try {
+            final byte[] instrumented = new Instrumenter(runtime)
+                    .instrument(InputStreamUtil.getClassBytes(method), Type.getInternalName(method.getDeclaringClass()));
+            IsolatedTargetClassLoader.defineIsolatedMethod(method, instrumented).invoke(null, input);
+            data.collect(executionData, new SessionInfoStore(), false);
+        } finally {
+            runtime.shutdown();
+        }
+        return jacocoLines(analyze(method, executionData), true);
+    }
+
+    private static IMethodCoverage analyze(Method method, ExecutionDataStore executionData) throws Exception {
+        final CoverageBuilder builder = new CoverageBuilder();
+        new Analyzer(executionData, builder)
+                .analyzeClass(InputStreamUtil.getClassBytes(method), Type.getInternalName(method.getDeclaringClass()));
+        return builder.getClasses().stream()
+                .flatMap(classCoverage -> classCoverage.getMethods().stream())
+                .filter(m -> m.getName().equals(method.getName()) && m.getDesc().equals(Type.getMethodDescriptor(method)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("JaCoCo 未分析到目标方法"));
+    }
+
+    /**
+     * @param coveredOnly true 只取已覆盖行，false 取全部可覆盖行
+     */
+    private static Set<Integer> jacocoLines(IMethodCoverage coverage, boolean coveredOnly) {
+        final Set<Integer> lines = new TreeSet<>();
+        for (int line = coverage.getFirstLine(); line <= coverage.getLastLine(); line++) {
+            final int status = coverage.getLine(line).getStatus();
+            if (coveredOnly ? status == ICounter.FULLY_COVERED || status == ICounter.PARTLY_COVERED
+                    : status != ICounter.EMPTY) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,65 @@
+package com.whj.generate.utill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 别名表抽样频率与权重的一致性
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:50
+ */
+class AliasTableTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void frequenciesMatchWeights() {
+        assertFrequencies(new double[]{1, 2, 3, 4});
+        assertFrequencies(new double[]{0.5, 0, 10, 0.25, 3, 3, 0.01});
+        assertFrequencies(new double[]{7});
+    }
+
+    @Test
+    void zeroWeightIsNeverSampled() {
+        final AliasTable table = new AliasTable(new double[]{0, 1, 0, 1});
+        final Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(table.sample(random) % 2).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThatThrownBy(() -> new AliasTable(new double[0])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AliasTable(new double[]{1, -1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AliasTable(new double[]{0, 0})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AliasTable(new double[]{1, Double.NaN})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 抽样频率与归一化权重之差不超过 5 倍标准差
+     */
+    private static void assertFrequencies(double[] weights) {
+        final AliasTable table = new AliasTable(weights);
+        assertThat(table.size()).isEqualTo(weights.length);
+        final int[] counts = new int[weights.length];
+        final Random random = new Random(11);
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            final double expected = weights[i] / total;
+            final double tolerance = 5 * Math.sqrt(expected * (1 - expected) / SAMPLES) + 1e-9;
+            assertThat((double) counts[i] / SAMPLES).isCloseTo(expected, within(tolerance));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.whj.generate.utill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * long[] 位集运算与 {@link BitSet} 的一致性
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:20
+ */
+class BitSetUtilsTest {
+    /**
+     * 位数覆盖整字、非整字与跨多字的情况
+     */
+    private static final int[] SIZES = {1, 63, 64, 65, 130, 200};
+
+    @Test
+    void operationsMatchJavaBitSet() {
+        final Random random = new Random(42);
+        for (int nbits : SIZES) {
+            final BitSet expectedA = randomBitSet(random, nbits);
+            final BitSet expectedB = randomBitSet(random, nbits);
+            final long[] a = toBits(expectedA, nbits);
+            final long[] b = toBits(expectedB, nbits);
+
+            assertThat(BitSetUtils.cardinality(a)).isEqualTo(expectedA.cardinality());
+            for (int i = 0; i < nbits; i++) {
+                assertThat(BitSetUtils.get(a, i)).isEqualTo(expectedA.get(i));
+            }
+
+            final BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            assertThat(BitSetUtils.andCardinality(a, b)).isEqualTo(and.cardinality());
+
+            final BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            final long[] orBits = a.clone();
+            BitSetUtils.or(orBits, b);
+            assertThat(BitSetUtils.equals(orBits, toBits(or, nbits))).isTrue();
+        }
+    }
+
+    @Test
+    void complementStaysWithinLength() {
+        for (int nbits : SIZES) {
+            final long[] bits = BitSetUtils.newBitSet(nbits);
+            BitSetUtils.set(bits, 0);
+            BitSetUtils.set(bits, nbits - 1);
+            final long[] complement = BitSetUtils.complement(bits, nbits);
+            assertThat(BitSetUtils.cardinality(complement)).isEqualTo(Math.max(0, nbits - 2));
+            assertThat(BitSetUtils.andCardinality(bits, complement)).isZero();
+        }
+        // 位集短于 nbits 时缺失的字视为未置位
+        assertThat(BitSetUtils.cardinality(BitSetUtils.complement(new long[0], 100))).isEqualTo(100);
+    }
+
+    @Test
+    void equalsAndHashCodeIgnoreTrailingZeroWords() {
+        final long[] shorter = {5L};
+        final long[] longer = {5L, 0L, 0L};
+        assertThat(BitSetUtils.equals(shorter, longer)).isTrue();
+        assertThat(BitSetUtils.hashCode(shorter)).isEqualTo(BitSetUtils.hashCode(longer));
+        assertThat(BitSetUtils.equals(shorter, new long[]{5L, 1L})).isFalse();
+        assertThat(BitSetUtils.isEmpty(new long[]{0L, 0L})).isTrue();
+    }
+
+    @Test
+    void toLinesOffsetsByStartLine() {
+        final long[] bits = BitSetUtils.newBitSet(130);
+        BitSetUtils.set(bits, 0);
+        BitSetUtils.set(bits, 64);
+        BitSetUtils.set(bits, 129);
+        assertThat(BitSetUtils.toLines(bits, 10)).isEqualTo(Set.of(10, 74, 139));
+    }
+
+    private static BitSet randomBitSet(Random random, int nbits) {
+        final BitSet bitSet = new BitSet(nbits);
+        for (int i = 0; i < nbits; i++) {
+            if (random.nextBoolean()) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    private static long[] toBits(BitSet bitSet, int nbits) {
+        final long[] bits = BitSetUtils.newBitSet(nbits);
+        bitSet.stream().forEach(i -> BitSetUtils.set(bits, i));
+        return bits;
+    }
+}
@@ -0,0 +1,59 @@
+package com.whj.generate.utill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Feistel 置换在 [0, size) 上是双射
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:55
+ */
+class FeistelPermutationTest {
+
+    @Test
+    void coversRangeExactlyOnceForNonPowerOfTwoSizes() {
+        for (long size : new long[]{1, 2, 3, 7, 10, 100, 1000, 4097, 65_537}) {
+            for (long seed : new long[]{0L, 42L, -1L}) {
+                assertBijective(new FeistelPermutation(size, seed));
+            }
+        }
+    }
+
+    @Test
+    void differentSeedsGiveDifferentOrders() {
+        final FeistelPermutation a = new FeistelPermutation(1000, 1L);
+        final FeistelPermutation b = new FeistelPermutation(1000, 2L);
+        int same = 0;
+        for (long i = 0; i < 1000; i++) {
+            if (a.apply(i) == b.apply(i)) {
+                same++;
+            }
+        }
+        assertThat(same).isBetween(0, 50);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> new FeistelPermutation(0, 1L)).isInstanceOf(IllegalArgumentException.class);
+        final FeistelPermutation permutation = new FeistelPermutation(10, 1L);
+        assertThatThrownBy(() -> permutation.apply(10)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> permutation.apply(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static void assertBijective(FeistelPermutation permutation) {
+        final int size = (int) permutation.size();
+        final BitSet seen = new BitSet(size);
+        for (long i = 0; i < size; i++) {
+            final long value = permutation.apply(i);
+            assertThat(value).isBetween(0L, size - 1L);
+            assertThat(seen.get((int) value)).isFalse();
+            seen.set((int) value);
+        }
+        assertThat(seen.cardinality()).isEqualTo(size);
+    }
+}
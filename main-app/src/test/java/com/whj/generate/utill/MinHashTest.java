@@ -0,0 +1,84 @@
+package com.whj.generate.utill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * MinHash 估计值与精确 Jaccard 相似度的误差
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:30
+ */
+class MinHashTest {
+    private static final double ERROR_BOUND = 0.1;
+
+    private final MinHash minHash = MinHash.forErrorBound(ERROR_BOUND);
+
+    @Test
+    void signatureLengthFollowsErrorBound() {
+        assertThat(minHash.size()).isEqualTo(100);
+        assertThat(MinHash.forErrorBound(0.3).size()).isEqualTo(12);
+    }
+
+    @Test
+    void estimateStaysWithinErrorBound() {
+        // {左区间, 右区间}，区间为 [from, to)
+        final int[][][] cases = {
+                {{0, 100}, {0, 100}},
+                {{0, 100}, {10, 100}},
+                {{0, 120}, {40, 160}},
+                {{0, 100}, {60, 200}},
+                {{0, 300}, {270, 330}},
+                {{0, 100}, {100, 200}},
+        };
+        for (int[][] pair : cases) {
+            final long[] a = range(pair[0][0], pair[0][1]);
+            final long[] b = range(pair[1][0], pair[1][1]);
+            final double exact = SimilarityUtils.jaccardSimilarity(a, b);
+            final double estimate = MinHash.estimate(minHash.signature(a), minHash.signature(b));
+            assertThat(estimate).isCloseTo(exact, within(ERROR_BOUND));
+        }
+    }
+
+    @Test
+    void identicalSetsEstimateExactlyOneAndEmptySetsZero() {
+        final long[] bits = range(5, 77);
+        assertThat(MinHash.estimate(minHash.signature(bits), minHash.signature(bits.clone()))).isEqualTo(1.0);
+
+        final int[] empty = minHash.signature(new long[2]);
+        assertThat(MinHash.isEmpty(empty)).isTrue();
+        assertThat(MinHash.estimate(empty, empty)).isEqualTo(0.0);
+        assertThat(MinHash.estimate(empty, minHash.signature(bits))).isEqualTo(0.0);
+    }
+
+    @Test
+    void averageSimilarityEqualsMeanOfPairwiseEstimates() {
+        final List<int[]> signatures = List.of(
+                minHash.signature(range(0, 100)),
+                minHash.signature(range(20, 120)),
+                minHash.signature(range(50, 150)),
+                minHash.signature(range(0, 100)),
+                minHash.signature(new long[2]));
+        double total = 0;
+        int pairs = 0;
+        for (int i = 0; i < signatures.size(); i++) {
+            for (int j = i + 1; j < signatures.size(); j++) {
+                total += MinHash.estimate(signatures.get(i), signatures.get(j));
+                pairs++;
+            }
+        }
+        assertThat(MinHash.averageSimilarity(signatures)).isCloseTo(total / pairs, within(1e-12));
+    }
+
+    private static long[] range(int from, int to) {
+        final long[] bits = BitSetUtils.newBitSet(to);
+        for (int i = from; i < to; i++) {
+            BitSetUtils.set(bits, i);
+        }
+        return bits;
+    }
+}
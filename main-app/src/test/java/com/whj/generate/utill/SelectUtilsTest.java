@@ -0,0 +1,97 @@
+package com.whj.generate.utill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 部分选择 topK 的边界与正确性
+ *
+ * @author whj
+ * @date 2026-10-18 下午11:40
+ */
+class SelectUtilsTest {
+    private static final double[] KEYS = {3.0, 9.0, 1.0, 7.0, 5.0};
+
+    @Test
+    void zeroReturnsEmpty() {
+        assertThat(SelectUtils.topK(KEYS, 0)).isEmpty();
+        assertThat(SelectUtils.topK(new double[0], 3)).isEmpty();
+    }
+
+    @Test
+    void partialSelectionIsOrderedDescending() {
+        assertThat(SelectUtils.topK(KEYS, 1)).containsExactly(1);
+        assertThat(SelectUtils.topK(KEYS, 3)).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    void allOrMoreThanSizeReturnsEveryIndexSorted() {
+        assertThat(SelectUtils.topK(KEYS, KEYS.length)).containsExactly(1, 3, 4, 0, 2);
+        assertThat(SelectUtils.topK(KEYS, KEYS.length + 10)).containsExactly(1, 3, 4, 0, 2);
+    }
+
+    @Test
+    void tiesKeepDistinctIndexesWithEqualKeys() {
+        final double[] keys = {2.0, 5.0, 5.0, 1.0, 5.0, 2.0};
+        final int[] top = SelectUtils.topK(keys, 2);
+        assertThat(top).hasSize(2).doesNotHaveDuplicates();
+        for (int index : top) {
+            assertThat(keys[index]).isEqualTo(5.0);
+        }
+        final int[] top4 = SelectUtils.topK(keys, 4);
+        assertThat(top4).doesNotHaveDuplicates();
+        assertThat(Arrays.stream(top4).mapToDouble(i -> keys[i]).toArray())
+                .containsExactly(5.0, 5.0, 5.0, 2.0);
+
+        final double[] same = new double[50];
+        Arrays.fill(same, 1.0);
+        assertThat(SelectUtils.topK(same, 20)).hasSize(20).doesNotHaveDuplicates();
+    }
+
+    /**
+     * 键值全部相同（同一覆盖等价类、适应度截断为 0）时仍为线性，两路划分在此退化为 O(n·k)
+     */
+    @Test
+    @Timeout(5)
+    void allEqualKeysStayLinear() {
+        final int n = 200_000;
+        final double[] keys = new double[n];
+        Arrays.fill(keys, 0.0);
+        for (int k : new int[]{1, n / 10, 2 * n / 5, n - 1}) {
+            assertThat(SelectUtils.topK(keys, k)).hasSize(k).doesNotHaveDuplicates();
+        }
+        // 少量较大键值混入大量相同键值
+        keys[n - 1] = 2.0;
+        keys[n / 2] = 1.0;
+        final int[] top = SelectUtils.topK(keys, 2 * n / 5);
+        assertThat(top[0]).isEqualTo(n - 1);
+        assertThat(top[1]).isEqualTo(n / 2);
+        assertThat(top).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void matchesFullSortOnRandomKeys() {
+        final Random random = new Random(7);
+        for (int n : new int[]{1, 10, 33, 200}) {
+            // 取值范围较小，包含大量重复键
+            final double[] keys = random.ints(n, 0, n / 2 + 1).asDoubleStream().toArray();
+            final double[] sorted = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> keys[i]).reversed())
+                    .mapToDouble(i -> keys[i])
+                    .toArray();
+            for (int k : new int[]{0, 1, n / 2, n - 1, n}) {
+                final int[] top = SelectUtils.topK(keys, k);
+                assertThat(top).hasSize(k).doesNotHaveDuplicates();
+                assertThat(Arrays.stream(top).mapToDouble(i -> keys[i]).toArray())
+                        .containsExactly(Arrays.copyOf(sorted, k));
+            }
+        }
+    }
+}